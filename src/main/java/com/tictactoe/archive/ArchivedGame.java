@@ -0,0 +1,122 @@
+package com.tictactoe.archive;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * A finished game as stored in the archive. The binary form holds only the
+ * metadata and the move list, two bytes per move, from which any position of
+ * the game can be replayed.
+ */
+public class ArchivedGame {
+    private static final byte FORMAT_VERSION = 1;
+
+    private final String id;
+    private final String humanSymbol;
+    private final String difficultyLevel;
+    private final GameState result;
+    private final Instant startTime;
+    private final Instant endTime;
+    private final int boardSize;
+    private final int[] moves;
+
+    public ArchivedGame(String id, String humanSymbol, String difficultyLevel, GameState result,
+                        Instant startTime, Instant endTime, int boardSize, int[] moves) {
+        this.id = id;
+        this.humanSymbol = humanSymbol;
+        this.difficultyLevel = difficultyLevel;
+        this.result = result;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.boardSize = boardSize;
+        this.moves = moves;
+    }
+
+    public static ArchivedGame of(Game game, Instant endTime) {
+        return new ArchivedGame(game.getId(), game.getHumanPlayer().getSymbol(), game.getDifficultyLevel(),
+                game.getGameState(), game.getStartTime().atZone(ZoneId.systemDefault()).toInstant(), endTime,
+                game.getBoard().getSize(), game.getMoves());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getHumanSymbol() {
+        return humanSymbol;
+    }
+
+    public String getDifficultyLevel() {
+        return difficultyLevel;
+    }
+
+    public GameState getResult() {
+        return result;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int[] getMoves() {
+        return moves.clone();
+    }
+
+    ByteBuffer encode() {
+        UUID uuid = UUID.fromString(id);
+        byte[] difficulty = difficultyLevel.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 16 + 1 + 1 + 1 + 8 + 8 + 1 + difficulty.length + 2 + 2 * moves.length);
+
+        buffer.put(FORMAT_VERSION);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        buffer.put((byte) result.ordinal());
+        buffer.put((byte) humanSymbol.charAt(0));
+        buffer.put((byte) boardSize);
+        buffer.putLong(startTime.toEpochMilli());
+        buffer.putLong(endTime.toEpochMilli());
+        buffer.put((byte) difficulty.length);
+        buffer.put(difficulty);
+        buffer.putShort((short) moves.length);
+        for (int move : moves) {
+            buffer.putShort((short) move);
+        }
+        return buffer.flip();
+    }
+
+    static ArchivedGame decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported archive record version: " + version);
+        }
+
+        String id = new UUID(buffer.getLong(), buffer.getLong()).toString();
+        GameState result = GameState.values()[buffer.get()];
+        String humanSymbol = String.valueOf((char) buffer.get());
+        int boardSize = buffer.get();
+        Instant startTime = Instant.ofEpochMilli(buffer.getLong());
+        Instant endTime = Instant.ofEpochMilli(buffer.getLong());
+        byte[] difficulty = new byte[buffer.get()];
+        buffer.get(difficulty);
+        int[] moves = new int[buffer.getShort()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = buffer.getShort();
+        }
+        return new ArchivedGame(id, humanSymbol, new String(difficulty, StandardCharsets.UTF_8), result,
+                startTime, endTime, boardSize, moves);
+    }
+}
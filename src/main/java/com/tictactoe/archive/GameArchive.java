@@ -0,0 +1,263 @@
+package com.tictactoe.archive;
+
+import com.tictactoe.service.GameFinishedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only archive of finished games. Records are appended to segment
+ * files of bounded size, and an index file maps each game ID to its segment,
+ * offset, length and finish date. The index is loaded into memory at startup;
+ * records are read through memory-mapped segments, so replay and export never
+ * touch Redis.
+ */
+@Component
+@ConditionalOnProperty(name = "game.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class GameArchive {
+    private static final Logger logger = LoggerFactory.getLogger(GameArchive.class);
+    private static final String INDEX_FILE = "games.idx";
+    private static final String SEGMENT_PREFIX = "games-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    // UUID, finish day, segment, offset, length
+    private static final int INDEX_ENTRY_BYTES = 16 + 4 + 4 + 8 + 4;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final Map<UUID, IndexEntry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Queue<UUID>> byDate = new ConcurrentSkipListMap<>();
+    private final Map<Integer, MappedByteBuffer> mappedSegments = new ConcurrentHashMap<>();
+
+    private final FileChannel indexChannel;
+    private FileChannel segmentChannel;
+    private int activeSegment;
+    private long activeSegmentSize;
+
+    @Autowired
+    public GameArchive(@Value("${game.archive.directory}") String directory,
+                       @Value("${game.archive.segment-size-mb}") long segmentSizeMb) throws IOException {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+        if (segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Archive segment size must be between 1 MB and 2 GB");
+        }
+
+        Files.createDirectories(this.directory);
+        this.activeSegment = findLastSegment();
+        this.indexChannel = FileChannel.open(this.directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        loadIndex();
+        openSegment(activeSegment);
+        logger.info("Opened game archive in {} with {} games", this.directory, byId.size());
+    }
+
+    @EventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        try {
+            append(ArchivedGame.of(event.getGame(), Instant.now()));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to archive game {}", event.getGame().getId(), e);
+        }
+    }
+
+    public synchronized void append(ArchivedGame game) throws IOException {
+        UUID id = UUID.fromString(game.getId());
+        if (byId.containsKey(id)) {
+            return;
+        }
+
+        ByteBuffer record = game.encode();
+        int length = record.remaining();
+        if (activeSegmentSize > 0 && activeSegmentSize + length > segmentBytes) {
+            segmentChannel.close();
+            openSegment(activeSegment + 1);
+        }
+
+        // Data goes first, so a crash can leave unreferenced bytes but never a dangling index entry
+        long offset = activeSegmentSize;
+        writeFully(segmentChannel, record);
+        activeSegmentSize += length;
+
+        int day = (int) LocalDate.ofInstant(game.getEndTime(), ZoneOffset.UTC).toEpochDay();
+        IndexEntry entry = new IndexEntry(day, activeSegment, offset, length);
+        ByteBuffer indexRecord = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        indexRecord.putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putInt(entry.day)
+                .putInt(entry.segment)
+                .putLong(entry.offset)
+                .putInt(entry.length);
+        writeFully(indexChannel, indexRecord.flip());
+        register(id, entry);
+    }
+
+    public Optional<ArchivedGame> findById(String gameId) {
+        UUID id;
+        try {
+            id = UUID.fromString(gameId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        IndexEntry entry = byId.get(id);
+        return entry == null ? Optional.empty() : Optional.of(read(entry));
+    }
+
+    // Visits the games finished on the given UTC date, in the order they were archived
+    public void forEachFinishedOn(LocalDate date, Consumer<ArchivedGame> consumer) {
+        Queue<UUID> ids = byDate.get((int) date.toEpochDay());
+        if (ids == null) {
+            return;
+        }
+        for (UUID id : ids) {
+            consumer.accept(read(byId.get(id)));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        segmentChannel.force(false);
+        segmentChannel.close();
+        indexChannel.force(false);
+        indexChannel.close();
+    }
+
+    private ArchivedGame read(IndexEntry entry) {
+        MappedByteBuffer mapped = mappedSegment(entry.segment, entry.offset + entry.length);
+        // Absolute slices leave the shared mapping's position untouched, so reads need no locking
+        return ArchivedGame.decode(mapped.slice((int) entry.offset, entry.length));
+    }
+
+    private MappedByteBuffer mappedSegment(int segment, long requiredSize) {
+        MappedByteBuffer mapped = mappedSegments.get(segment);
+        if (mapped != null && mapped.capacity() >= requiredSize) {
+            return mapped;
+        }
+
+        // The active segment keeps growing, so its mapping is renewed once a read goes past its end
+        synchronized (mappedSegments) {
+            mapped = mappedSegments.get(segment);
+            if (mapped == null || mapped.capacity() < requiredSize) {
+                try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to map archive segment " + segment, e);
+                }
+                mappedSegments.put(segment, mapped);
+            }
+            return mapped;
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        long size = indexChannel.size();
+        long validEntries = size / INDEX_ENTRY_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate((int) (validEntries * INDEX_ENTRY_BYTES));
+        while (buffer.hasRemaining()) {
+            if (indexChannel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+
+        Map<Integer, Long> segmentSizes = new HashMap<>();
+        while (buffer.remaining() >= INDEX_ENTRY_BYTES) {
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            IndexEntry entry = new IndexEntry(buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getInt());
+            long segmentSize = segmentSizes.computeIfAbsent(entry.segment, this::segmentSize);
+            if (entry.offset + entry.length <= segmentSize) {
+                register(id, entry);
+            } else {
+                logger.warn("Skipping archive entry for game {} past the end of segment {}", id, entry.segment);
+            }
+        }
+
+        // Drop a partially written trailing entry and append after the last complete one
+        indexChannel.truncate(validEntries * INDEX_ENTRY_BYTES);
+        indexChannel.position(validEntries * INDEX_ENTRY_BYTES);
+    }
+
+    private void register(UUID id, IndexEntry entry) {
+        byId.put(id, entry);
+        byDate.computeIfAbsent(entry.day, day -> new ConcurrentLinkedQueue<>()).add(id);
+    }
+
+    private int findLastSegment() throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> segments.add(Integer.parseInt(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        return segments.stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    private void openSegment(int segment) throws IOException {
+        segmentChannel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSegment = segment;
+        activeSegmentSize = segmentChannel.size();
+    }
+
+    private long segmentSize(int segment) {
+        try {
+            Path path = segmentPath(segment);
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read archive segment " + segment, e);
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static final class IndexEntry {
+        private final int day;
+        private final int segment;
+        private final long offset;
+        private final int length;
+
+        private IndexEntry(int day, int segment, long offset, int length) {
+            this.day = day;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
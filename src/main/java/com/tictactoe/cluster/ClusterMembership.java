@@ -0,0 +1,92 @@
+package com.tictactoe.cluster;
+
+import com.tictactoe.repository.ClusterRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tracks the nodes of the cluster and which node owns each game. Every node
+ * heartbeats into Redis, drops nodes that stopped heartbeating, and rebuilds its
+ * hash ring when the membership changes. Game state always lives in Redis, so
+ * nodes that briefly disagree on ownership only lose warm state, never games.
+ */
+@Component
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class ClusterMembership {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterRepository clusterRepository;
+    private final String nodeUrl;
+    private final long nodeTimeoutMs;
+    private final int virtualNodes;
+    private volatile HashRing ring;
+
+    @Autowired
+    public ClusterMembership(ClusterRepository clusterRepository,
+                             @Value("${game.cluster.node-url}") String nodeUrl,
+                             @Value("${game.cluster.node-timeout-ms}") long nodeTimeoutMs,
+                             @Value("${game.cluster.virtual-nodes}") int virtualNodes) {
+        this.clusterRepository = clusterRepository;
+        this.nodeUrl = nodeUrl;
+        this.nodeTimeoutMs = nodeTimeoutMs;
+        this.virtualNodes = virtualNodes;
+        // Own every game until the first heartbeat has read the membership
+        this.ring = new HashRing(List.of(nodeUrl), virtualNodes);
+    }
+
+    @Scheduled(fixedDelayString = "${game.cluster.heartbeat-interval-ms}")
+    public void heartbeat() {
+        try {
+            Instant now = Instant.now();
+            clusterRepository.heartbeat(nodeUrl, now);
+            clusterRepository.removeNodesSilentSince(now.minusMillis(nodeTimeoutMs));
+            updateRing(clusterRepository.findNodes());
+        } catch (RuntimeException e) {
+            // Keep routing with the last known ring, the next heartbeat retries
+            logger.error("Failed to refresh cluster membership", e);
+        }
+    }
+
+    // Leaving explicitly hands this node's games over at once instead of after the node timeout
+    @PreDestroy
+    public void leave() {
+        try {
+            clusterRepository.removeNode(nodeUrl);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to leave the cluster, other nodes will drop {} after the timeout", nodeUrl, e);
+        }
+    }
+
+    public String ownerOf(String gameId) {
+        return ring.ownerOf(gameId);
+    }
+
+    public String getNodeUrl() {
+        return nodeUrl;
+    }
+
+    private void updateRing(Set<String> nodes) {
+        Set<String> previous = ring.getNodes();
+        if (nodes.equals(previous) || nodes.isEmpty()) {
+            return;
+        }
+
+        Set<String> joined = new HashSet<>(nodes);
+        joined.removeAll(previous);
+        Set<String> left = new HashSet<>(previous);
+        left.removeAll(nodes);
+        logger.info("Cluster membership changed, joined: {}, left: {}, nodes: {}", joined, left, nodes.size());
+        ring = new HashRing(nodes, virtualNodes);
+    }
+}
@@ -0,0 +1,40 @@
+package com.tictactoe.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+// Tells clients and load balancers which node owns the game, so they can send its next request there
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class GameAffinityInterceptor implements HandlerInterceptor {
+    public static final String OWNER_HEADER = "X-Game-Owner";
+
+    private final ClusterMembership clusterMembership;
+
+    @Autowired
+    public GameAffinityInterceptor(ClusterMembership clusterMembership) {
+        this.clusterMembership = clusterMembership;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String gameId = variables != null ? variables.get("gameId") : null;
+        if (gameId != null) {
+            response.setHeader(OWNER_HEADER, clusterMembership.ownerOf(gameId));
+        }
+        // Requests are always served here, any node can read and write the game in Redis
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.tictactoe.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// The reactive stack's GameAffinityInterceptor, the header is added once the handler has matched the game ID
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class GameAffinityWebFilter implements WebFilter {
+    private final ClusterMembership clusterMembership;
+
+    @Autowired
+    public GameAffinityWebFilter(ClusterMembership clusterMembership) {
+        this.clusterMembership = clusterMembership;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getPath().pathWithinApplication().value().startsWith("/game/")) {
+            exchange.getResponse().beforeCommit(() -> {
+                Map<String, String> variables = exchange.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                String gameId = variables != null ? variables.get("gameId") : null;
+                if (gameId != null) {
+                    exchange.getResponse().getHeaders()
+                            .set(GameAffinityInterceptor.OWNER_HEADER, clusterMembership.ownerOf(gameId));
+                }
+                return Mono.empty();
+            });
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,42 @@
+package com.tictactoe.config;
+
+import com.tictactoe.service.ai.EvaluationWeights;
+import com.tictactoe.service.ai.SelectiveSearch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class AIConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AIConfig.class);
+
+    @Bean
+    public EvaluationWeights evaluationWeights(@Value("${game.ai.evaluation.weights-file}") String weightsFile)
+            throws IOException {
+        if (weightsFile.isBlank()) {
+            logger.info("Using default evaluation weights");
+            return EvaluationWeights.defaults();
+        }
+
+        EvaluationWeights weights = EvaluationWeights.load(Path.of(weightsFile));
+        logger.info("Loaded evaluation weights from {}: {}", weightsFile, weights);
+        return weights;
+    }
+
+    @Bean
+    public SelectiveSearch selectiveSearch(
+            @Value("${game.ai.hard.late-move-reductions}") boolean lateMoveReductions,
+            @Value("${game.ai.hard.reduction-min-moves}") int reductionMinMoves,
+            @Value("${game.ai.hard.reduction-min-depth}") int reductionMinDepth,
+            @Value("${game.ai.hard.futility-pruning}") boolean futilityPruning,
+            @Value("${game.ai.hard.futility-margin}") int futilityMargin,
+            @Value("${game.ai.hard.threat-extensions}") int threatExtensions) {
+        return new SelectiveSearch(lateMoveReductions, reductionMinMoves, reductionMinDepth,
+                futilityPruning, futilityMargin, threatExtensions);
+    }
+}
@@ -0,0 +1,26 @@
+package com.tictactoe.config;
+
+import com.tictactoe.cluster.GameAffinityInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class ClusterWebConfig implements WebMvcConfigurer {
+    private final GameAffinityInterceptor gameAffinityInterceptor;
+
+    @Autowired
+    public ClusterWebConfig(GameAffinityInterceptor gameAffinityInterceptor) {
+        this.gameAffinityInterceptor = gameAffinityInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(gameAffinityInterceptor).addPathPatterns("/game/**");
+    }
+}
@@ -0,0 +1,50 @@
+package com.tictactoe.config;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.repository.CompactGameSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Beans of the WebFlux stack, active when the reactive profile switches the application type
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    // Same key and value format as the blocking template, so both stacks can share one Redis
+    @Bean
+    public ReactiveRedisTemplate<String, Game> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, Game> context = RedisSerializationContext
+                .<String, Game>newSerializationContext(new StringRedisSerializer())
+                .value(new CompactGameSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    // One shared subscriber connection for all game update channels on this node
+    @Bean
+    public ReactiveRedisMessageListenerContainer reactiveRedisMessageListenerContainer(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+
+    /**
+     * Runs AI searches and analyses off the event loop. Threads are capped at the CPU
+     * count by default, and once the queue is full further searches are rejected
+     * instead of piling up behind the ones running.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler aiScheduler(@Value("${game.reactive.ai-threads}") int threads,
+                                 @Value("${game.reactive.ai-queue-size}") int queueSize) {
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(threadCount, queueSize, "ai-search");
+    }
+}
@@ -2,11 +2,12 @@ package com.tictactoe.config;
 
 
 import com.tictactoe.model.Game;
+import com.tictactoe.repository.CompactGameSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -17,10 +18,18 @@ public class RedisConfig {
         RedisTemplate<String, Game> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // Use Jackson2JsonRedisSerializer for value serialization
-        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(Game.class));
+        // Games are stored as their move log, the board is rebuilt on read
+        template.setValueSerializer(new CompactGameSerializer());
         template.setKeySerializer(new StringRedisSerializer());
 
         return template;
     }
+
+    // One shared subscriber connection for all game update channels on this node
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
\ No newline at end of file
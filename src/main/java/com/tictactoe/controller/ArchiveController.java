@@ -0,0 +1,82 @@
+package com.tictactoe.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tictactoe.archive.ArchivedGame;
+import com.tictactoe.archive.GameArchive;
+import com.tictactoe.exception.GameNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/archive")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "game.archive.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ArchiveController {
+    private final GameArchive gameArchive;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ArchiveController(GameArchive gameArchive, ObjectMapper objectMapper) {
+        this.gameArchive = gameArchive;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/games/{gameId}")
+    public ResponseEntity<Map<String, Object>> getArchivedGame(@PathVariable String gameId) {
+        ArchivedGame game = gameArchive.findById(gameId)
+                .orElseThrow(() -> new GameNotFoundException("Archived game not found with ID: " + gameId));
+        return ResponseEntity.ok(mapArchivedGameToResponse(game));
+    }
+
+    @GetMapping("/games")
+    public ResponseEntity<StreamingResponseBody> exportArchivedGames(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                gameArchive.forEachFinishedOn(date, game -> {
+                    try {
+                        generator.writeObject(mapArchivedGameToResponse(game));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private Map<String, Object> mapArchivedGameToResponse(ArchivedGame game) {
+        int[] moves = game.getMoves();
+        int[][] moveList = new int[moves.length][];
+        for (int i = 0; i < moves.length; i++) {
+            moveList[i] = new int[]{moves[i] / game.getBoardSize(), moves[i] % game.getBoardSize()};
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("gameId", game.getId());
+        response.put("humanSymbol", game.getHumanSymbol());
+        response.put("difficultyLevel", game.getDifficultyLevel());
+        response.put("gameState", game.getResult().toString());
+        response.put("startTime", game.getStartTime().toString());
+        response.put("endTime", game.getEndTime().toString());
+        response.put("moves", moveList);
+        return response;
+    }
+}
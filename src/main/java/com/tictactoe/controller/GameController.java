@@ -1,112 +1,202 @@
 package com.tictactoe.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tictactoe.model.Game;
-import com.tictactoe.model.GameState;
+import com.tictactoe.model.GameMove;
 import com.tictactoe.model.Move;
 import com.tictactoe.service.GameService;
+import com.tictactoe.service.MoveOutcome;
+import com.tictactoe.spectator.SpectatorHub;
+import com.tictactoe.service.ai.MoveAnalysis;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
+@Validated
 @RequestMapping("/game")
 @CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GameController {
+    private static final int BULK_FETCH_CHUNK = 100;
+
     private final GameService gameService;
+    private final GameResponseMapper responseMapper;
+    private final SpectatorHub spectatorHub;
+    private final ObjectMapper objectMapper;
+
+    @Value("${game.bulk.max-games}")
+    private int maxBulkGames;
+
+    @Value("${game.ai.solver.max-request-nodes}")
+    private long maxSolverNodes;
+
+    @Value("${game.ai.analysis.max-lines}")
+    private int maxAnalysisLines;
 
     @Autowired
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, GameResponseMapper responseMapper,
+                          SpectatorHub spectatorHub, ObjectMapper objectMapper) {
         this.gameService = gameService;
+        this.responseMapper = responseMapper;
+        this.spectatorHub = spectatorHub;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/start")
     public ResponseEntity<Map<String, Object>> startGame(
             @RequestParam @NotBlank @Pattern(regexp = "^[XO]$") String symbol,
-            @RequestParam @NotBlank @Pattern(regexp = "^(easy|hard)$") String difficultyLevel) {
+            @RequestParam @NotBlank @Pattern(regexp = "^[a-z0-9-]{1,32}$") String difficultyLevel,
+            @RequestParam(required = false) @Pattern(regexp = "^[A-Za-z0-9_-]{1,32}$") String playerName) {
 
-        Game game = gameService.createGame(symbol, difficultyLevel);
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapGameToResponse(game));
+        Game game = gameService.createGame(symbol, difficultyLevel, playerName);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responseMapper.toResponse(game));
     }
 
     @PostMapping("/{gameId}/move")
     public ResponseEntity<Map<String, Object>> makeMove(
             @PathVariable String gameId,
-            @RequestBody @Valid Move move) {
+            @RequestBody @Valid Move move,
+            @RequestHeader(value = "X-Player-Token", required = false) String playerToken) {
 
-        Game game = gameService.makeMove(gameId, move);
-        return ResponseEntity.ok(mapGameToResponse(game));
+        Game game = gameService.makeMove(gameId, move, playerToken);
+        return ResponseEntity.ok(responseMapper.toResponse(game));
     }
 
     @GetMapping("/{gameId}/state")
     public ResponseEntity<Map<String, Object>> getGameState(@PathVariable String gameId) {
         Game game = gameService.getGame(gameId);
-        return ResponseEntity.ok(mapGameToResponse(game));
+        return ResponseEntity.ok(responseMapper.toResponse(game));
     }
 
-    private Map<String, Object> mapGameToResponse(Game game) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("gameId", game.getId());
-        response.put("board", convertBoardToArray(game));
-        response.put("currentPlayer", game.getCurrentPlayer().getSymbol());
-        response.put("gameState", game.getGameState().toString());
-        response.put("winningSequence", game.getWinningSequence());
-        response.put("humanSymbol", game.getHumanPlayer().getSymbol());
-        response.put("timeRemaining", calculateTimeRemaining(game));
-
-        // If game is over, include a message
-        if (game.getGameState() != GameState.IN_PROGRESS) {
-            response.put("message", getGameResultMessage(game));
-        }
-
-        return response;
+    @GetMapping(value = "/{gameId}/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter watchGame(@PathVariable String gameId) {
+        return spectatorHub.watch(gameId, () -> gameService.getGame(gameId));
     }
 
-    private String[][] convertBoardToArray(Game game) {
-        int size = game.getBoard().getSize();
-        String[][] boardArray = new String[size][size];
+    @PostMapping("/states")
+    public ResponseEntity<StreamingResponseBody> getGameStates(@RequestBody List<String> gameIds) {
+        checkBatchSize(gameIds.size());
+
+        // Fetch and write the games chunk by chunk, so only one chunk is held in memory at a time
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (int from = 0; from < gameIds.size(); from += BULK_FETCH_CHUNK) {
+                    List<String> chunk = gameIds.subList(from, Math.min(gameIds.size(), from + BULK_FETCH_CHUNK));
+                    Map<String, Game> games = gameService.getGames(chunk);
+                    for (String gameId : chunk) {
+                        Game game = games.get(gameId);
+                        generator.writeObject(game != null
+                                ? responseMapper.toResponse(game)
+                                : mapErrorToResponse(gameId, "Game not found", "Game not found with ID: " + gameId));
+                    }
+                    generator.flush();
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                boardArray[row][col] = game.getBoard().getCell(row, col).getValue();
+    @PostMapping("/moves")
+    public ResponseEntity<StreamingResponseBody> makeMoves(@RequestBody List<GameMove> moves) {
+        checkBatchSize(moves.size());
+        List<MoveOutcome> outcomes = gameService.makeMoves(moves);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (MoveOutcome outcome : outcomes) {
+                    generator.writeObject(outcome.isSuccess()
+                            ? responseMapper.toResponse(outcome.getGame())
+                            : mapErrorToResponse(outcome.getGameId(), outcome.getError(), outcome.getMessage()));
+                }
+                generator.writeEndArray();
             }
-        }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @PostMapping("/{gameId}/takeback")
+    public ResponseEntity<Map<String, Object>> takeBack(@PathVariable String gameId) {
+        Game game = gameService.takeBack(gameId);
+        return ResponseEntity.ok(responseMapper.toResponse(game));
+    }
+
+    @PostMapping("/{gameId}/branch")
+    public ResponseEntity<Map<String, Object>> branchGame(
+            @PathVariable String gameId,
+            @RequestParam(required = false) @Min(0) Integer moves) {
 
-        return boardArray;
+        Game game = gameService.branchGame(gameId, moves);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responseMapper.toResponse(game));
     }
 
-    private long calculateTimeRemaining(Game game) {
-        LocalDateTime gameEndTime = game.getStartTime().plusMinutes(game.getTimeLimit());
-        LocalDateTime now = LocalDateTime.now();
+    @GetMapping("/{gameId}/analysis")
+    public ResponseEntity<Map<String, Object>> getAnalysis(
+            @PathVariable String gameId,
+            @RequestParam(defaultValue = "3") @Min(1) int lines) {
+
+        checkAnalysisLines(lines);
+        List<MoveAnalysis> analysis = gameService.analyzeGame(gameId, lines);
+        Map<String, Object> response = new HashMap<>();
+        response.put("gameId", gameId);
+        response.put("lines", analysis);
+        return ResponseEntity.ok(response);
+    }
 
-        if (now.isAfter(gameEndTime)) {
-            return 0;
+    @PostMapping("/{gameId}/solve")
+    public ResponseEntity<Map<String, Object>> solve(
+            @PathVariable String gameId,
+            @RequestParam(defaultValue = "50000") @Min(1) long nodeLimit) {
+
+        checkSolverNodes(nodeLimit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("gameId", gameId);
+        response.put("solution", gameService.solveGame(gameId, nodeLimit));
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> mapErrorToResponse(String gameId, String error, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("gameId", gameId);
+        response.put("error", error);
+        response.put("message", message);
+        return response;
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBulkGames) {
+            throw new IllegalArgumentException("At most " + maxBulkGames + " games per request, got " + size);
         }
+    }
 
-        return java.time.Duration.between(now, gameEndTime).getSeconds();
+    private void checkAnalysisLines(int lines) {
+        if (lines > maxAnalysisLines) {
+            throw new IllegalArgumentException("At most " + maxAnalysisLines + " lines per analysis, got " + lines);
+        }
     }
 
-    private String getGameResultMessage(Game game) {
-        switch (game.getGameState()) {
-            case X_WON:
-                return "Player X won the game!";
-            case O_WON:
-                return "Player O won the game!";
-            case DRAW:
-                if (game.isTimeLimitExceeded()) {
-                    return "Game ended in a draw due to time limit.";
-                } else {
-                    return "Game ended in a draw (board is full).";
-                }
-            default:
-                return "Game in progress.";
+    private void checkSolverNodes(long nodeLimit) {
+        if (nodeLimit > maxSolverNodes) {
+            throw new IllegalArgumentException("At most " + maxSolverNodes + " nodes per solve, got " + nodeLimit);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.tictactoe.controller;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Builds the JSON game state shared by the REST endpoints and spectator streams
+@Component
+public class GameResponseMapper {
+
+    public Map<String, Object> toResponse(Game game) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("gameId", game.getId());
+        response.put("board", convertBoardToArray(game));
+        response.put("currentPlayer", game.getCurrentPlayer().getSymbol());
+        response.put("gameState", game.getGameState().toString());
+        response.put("winningSequence", game.getWinningSequence());
+        response.put("humanSymbol", game.getHumanPlayer().getSymbol());
+        response.put("moveCount", game.getMoveCount());
+        response.put("playerName", game.getPlayerName());
+        response.put("timeRemaining", calculateTimeRemaining(game));
+
+        // If game is over, include a message
+        if (game.getGameState() != GameState.IN_PROGRESS) {
+            response.put("message", getGameResultMessage(game));
+        }
+
+        return response;
+    }
+
+    private String[][] convertBoardToArray(Game game) {
+        int size = game.getBoard().getSize();
+        String[][] boardArray = new String[size][size];
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                boardArray[row][col] = game.getBoard().getCell(row, col).getValue();
+            }
+        }
+
+        return boardArray;
+    }
+
+    private long calculateTimeRemaining(Game game) {
+        LocalDateTime gameEndTime = game.getStartTime().plusMinutes(game.getTimeLimit());
+        LocalDateTime now = LocalDateTime.now();
+
+        if (now.isAfter(gameEndTime)) {
+            return 0;
+        }
+
+        return java.time.Duration.between(now, gameEndTime).getSeconds();
+    }
+
+    private String getGameResultMessage(Game game) {
+        switch (game.getGameState()) {
+            case X_WON:
+                return "Player X won the game!";
+            case O_WON:
+                return "Player O won the game!";
+            case DRAW:
+                if (game.isTimeLimitExceeded()) {
+                    return "Game ended in a draw due to time limit.";
+                } else if (game.getBoard().isFull()) {
+                    return "Game ended in a draw (board is full).";
+                } else {
+                    return "Game ended in a draw (no winning line left).";
+                }
+            default:
+                return "Game in progress.";
+        }
+    }
+}
\ No newline at end of file
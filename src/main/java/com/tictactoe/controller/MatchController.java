@@ -0,0 +1,81 @@
+package com.tictactoe.controller;
+
+import com.tictactoe.exception.TicketNotFoundException;
+import com.tictactoe.matchmaking.MatchTicket;
+import com.tictactoe.matchmaking.MatchmakingService;
+import com.tictactoe.service.SeatTokens;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Poll the node that issued a ticket while it waits, once it is settled any node knows the result
+@RestController
+@Validated
+@RequestMapping("/match")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "game.matchmaking.enabled", havingValue = "true")
+public class MatchController {
+    private final MatchmakingService matchmakingService;
+    private final SeatTokens seatTokens;
+
+    @Autowired
+    public MatchController(MatchmakingService matchmakingService, SeatTokens seatTokens) {
+        this.matchmakingService = matchmakingService;
+        this.seatTokens = seatTokens;
+    }
+
+    @PostMapping("/join")
+    public ResponseEntity<Map<String, Object>> join(
+            @RequestParam @NotBlank @Pattern(regexp = "^[a-z0-9-]{1,32}$") String bucket) {
+
+        MatchTicket ticket = matchmakingService.join(bucket);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toResponse(ticket));
+    }
+
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<Map<String, Object>> getTicket(@PathVariable String ticketId) {
+        return ResponseEntity.ok(toResponse(findTicket(ticketId)));
+    }
+
+    @DeleteMapping("/{ticketId}")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable String ticketId) {
+        MatchTicket ticket = findTicket(ticketId);
+        // Too late once the ticket is matched, the response tells the player where to play
+        HttpStatus status = matchmakingService.cancel(ticket) ? HttpStatus.OK : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(toResponse(ticket));
+    }
+
+    private MatchTicket findTicket(String ticketId) {
+        return matchmakingService.findTicket(ticketId)
+                .orElseThrow(() -> new TicketNotFoundException("Ticket not found with ID: " + ticketId));
+    }
+
+    private Map<String, Object> toResponse(MatchTicket ticket) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("ticketId", ticket.getId());
+        response.put("bucket", ticket.getBucket());
+        if (ticket.isWaiting()) {
+            response.put("status", "WAITING");
+        } else {
+            response.put("status", ticket.getState().toString());
+        }
+
+        // The token is only ever shown to the ticket's holder, it is needed for every move
+        if (ticket.getState() == MatchTicket.State.MATCHED) {
+            response.put("gameId", ticket.getGameId());
+            response.put("symbol", ticket.getSymbol());
+            response.put("playerToken", seatTokens.issue(ticket.getGameId(), ticket.getSymbol()));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,183 @@
+package com.tictactoe.controller;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameMove;
+import com.tictactoe.model.Move;
+import com.tictactoe.service.ReactiveGameService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The WebFlux version of GameController, serving the same endpoints and responses
+@RestController
+@Validated
+@RequestMapping("/game")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGameController {
+    private static final int BULK_FETCH_CHUNK = 100;
+
+    private final ReactiveGameService gameService;
+    private final GameResponseMapper responseMapper;
+
+    @Value("${game.bulk.max-games}")
+    private int maxBulkGames;
+
+    @Value("${game.ai.solver.max-request-nodes}")
+    private long maxSolverNodes;
+
+    @Value("${game.ai.analysis.max-lines}")
+    private int maxAnalysisLines;
+
+    @Autowired
+    public ReactiveGameController(ReactiveGameService gameService, GameResponseMapper responseMapper) {
+        this.gameService = gameService;
+        this.responseMapper = responseMapper;
+    }
+
+    @PostMapping("/start")
+    public Mono<ResponseEntity<Map<String, Object>>> startGame(
+            @RequestParam @NotBlank @Pattern(regexp = "^[XO]$") String symbol,
+            @RequestParam @NotBlank @Pattern(regexp = "^[a-z0-9-]{1,32}$") String difficultyLevel,
+            @RequestParam(required = false) @Pattern(regexp = "^[A-Za-z0-9_-]{1,32}$") String playerName) {
+
+        return gameService.createGame(symbol, difficultyLevel, playerName)
+                .map(game -> ResponseEntity.status(HttpStatus.CREATED).body(responseMapper.toResponse(game)));
+    }
+
+    @PostMapping("/{gameId}/move")
+    public Mono<ResponseEntity<Map<String, Object>>> makeMove(
+            @PathVariable String gameId,
+            @RequestBody @Valid Move move,
+            @RequestHeader(value = "X-Player-Token", required = false) String playerToken) {
+
+        return gameService.makeMove(gameId, move, playerToken)
+                .map(game -> ResponseEntity.ok(responseMapper.toResponse(game)));
+    }
+
+    @GetMapping("/{gameId}/state")
+    public Mono<ResponseEntity<Map<String, Object>>> getGameState(@PathVariable String gameId) {
+        return gameService.getGame(gameId)
+                .map(game -> ResponseEntity.ok(responseMapper.toResponse(game)));
+    }
+
+    @GetMapping(value = "/{gameId}/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> watchGame(@PathVariable String gameId) {
+        return gameService.watchGame(gameId)
+                .map(game -> ServerSentEvent.builder(responseMapper.toResponse(game)).event("state").build());
+    }
+
+    @PostMapping(value = "/states", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Map<String, Object>> getGameStates(@RequestBody List<String> gameIds) {
+        checkBatchSize(gameIds.size());
+
+        // Fetch and write the games chunk by chunk, so only one chunk is held in memory at a time
+        return Flux.fromIterable(gameIds)
+                .buffer(BULK_FETCH_CHUNK)
+                .concatMap(chunk -> gameService.getGames(chunk).flatMapIterable(games -> {
+                    List<Map<String, Object>> responses = new ArrayList<>(chunk.size());
+                    for (String gameId : chunk) {
+                        Game game = games.get(gameId);
+                        responses.add(game != null
+                                ? responseMapper.toResponse(game)
+                                : mapErrorToResponse(gameId, "Game not found", "Game not found with ID: " + gameId));
+                    }
+                    return responses;
+                }));
+    }
+
+    @PostMapping(value = "/moves", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Map<String, Object>> makeMoves(@RequestBody List<GameMove> moves) {
+        checkBatchSize(moves.size());
+        return gameService.makeMoves(moves)
+                .map(outcome -> outcome.isSuccess()
+                        ? responseMapper.toResponse(outcome.getGame())
+                        : mapErrorToResponse(outcome.getGameId(), outcome.getError(), outcome.getMessage()));
+    }
+
+    @PostMapping("/{gameId}/takeback")
+    public Mono<ResponseEntity<Map<String, Object>>> takeBack(@PathVariable String gameId) {
+        return gameService.takeBack(gameId)
+                .map(game -> ResponseEntity.ok(responseMapper.toResponse(game)));
+    }
+
+    @PostMapping("/{gameId}/branch")
+    public Mono<ResponseEntity<Map<String, Object>>> branchGame(
+            @PathVariable String gameId,
+            @RequestParam(required = false) @Min(0) Integer moves) {
+
+        return gameService.branchGame(gameId, moves)
+                .map(game -> ResponseEntity.status(HttpStatus.CREATED).body(responseMapper.toResponse(game)));
+    }
+
+    @GetMapping("/{gameId}/analysis")
+    public Mono<ResponseEntity<Map<String, Object>>> getAnalysis(
+            @PathVariable String gameId,
+            @RequestParam(defaultValue = "3") @Min(1) int lines) {
+
+        checkAnalysisLines(lines);
+        return gameService.analyzeGame(gameId, lines).map(analysis -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("gameId", gameId);
+            response.put("lines", analysis);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @PostMapping("/{gameId}/solve")
+    public Mono<ResponseEntity<Map<String, Object>>> solve(
+            @PathVariable String gameId,
+            @RequestParam(defaultValue = "50000") @Min(1) long nodeLimit) {
+
+        checkSolverNodes(nodeLimit);
+        return gameService.solveGame(gameId, nodeLimit).map(solution -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("gameId", gameId);
+            response.put("solution", solution);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    private Map<String, Object> mapErrorToResponse(String gameId, String error, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("gameId", gameId);
+        response.put("error", error);
+        response.put("message", message);
+        return response;
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBulkGames) {
+            throw new IllegalArgumentException("At most " + maxBulkGames + " games per request, got " + size);
+        }
+    }
+
+    private void checkAnalysisLines(int lines) {
+        if (lines > maxAnalysisLines) {
+            throw new IllegalArgumentException("At most " + maxAnalysisLines + " lines per analysis, got " + lines);
+        }
+    }
+
+    private void checkSolverNodes(long nodeLimit) {
+        if (nodeLimit > maxSolverNodes) {
+            throw new IllegalArgumentException("At most " + maxSolverNodes + " nodes per solve, got " + nodeLimit);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.tictactoe.controller;
+
+import com.tictactoe.model.LeaderboardEntry;
+import com.tictactoe.service.StatisticsService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Validated
+@RequestMapping("/stats")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StatisticsController {
+    private final StatisticsService statisticsService;
+
+    @Autowired
+    public StatisticsController(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getResults() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", statisticsService.getResultCounts());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/players/{playerName}")
+    public ResponseEntity<Map<String, Object>> getPlayerResults(@PathVariable String playerName) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("playerName", playerName);
+        response.put("results", statisticsService.getPlayerResultCounts(playerName));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<Map<String, Object>> getLeaderboard(
+            @RequestParam @NotBlank @Pattern(regexp = "^[a-z0-9-]{1,32}$") String difficultyLevel,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+
+        List<LeaderboardEntry> leaderboard = statisticsService.getLeaderboard(difficultyLevel, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("difficultyLevel", difficultyLevel);
+        response.put("players", leaderboard);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,12 @@
+package com.tictactoe.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The in-memory store reached its memory cap, no new games fit until older ones expire
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class GameStoreFullException extends RuntimeException {
+    public GameStoreFullException(String message) {
+        super(message);
+    }
+}
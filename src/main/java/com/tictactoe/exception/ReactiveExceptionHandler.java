@@ -0,0 +1,79 @@
+package com.tictactoe.exception;
+
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+// Maps errors of the WebFlux endpoints to the same responses GlobalExceptionHandler gives on MVC
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler extends ResponseEntityExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    @ExceptionHandler(GameNotFoundException.class)
+    public ResponseEntity<Object> handleGameNotFoundException(GameNotFoundException ex) {
+        logger.error("Game not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Game not found", ex.getMessage());
+    }
+
+    @ExceptionHandler(TicketNotFoundException.class)
+    public ResponseEntity<Object> handleTicketNotFoundException(TicketNotFoundException ex) {
+        logger.error("Ticket not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Ticket not found", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidMoveException.class)
+    public ResponseEntity<Object> handleInvalidMoveException(InvalidMoveException ex) {
+        logger.error("Invalid move: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Invalid move", ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Object> handleIllegalArgumentException(IllegalArgumentException ex) {
+        logger.error("Invalid request: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Invalid request", ex.getMessage());
+    }
+
+    // Constraints on request parameters, checked on controllers annotated with @Validated
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex) {
+        logger.error("Invalid request: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Invalid request", ex.getMessage());
+    }
+
+    @ExceptionHandler(GameStoreFullException.class)
+    public ResponseEntity<Object> handleGameStoreFullException(GameStoreFullException ex) {
+        logger.warn("Game store full: {}", ex.getMessage());
+        return error(HttpStatus.SERVICE_UNAVAILABLE, "Server busy", ex.getMessage());
+    }
+
+    // The AI scheduler's queue is full, the client should retry later
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleRejectedExecutionException(RejectedExecutionException ex) {
+        logger.warn("AI search rejected: {}", ex.getMessage());
+        return error(HttpStatus.SERVICE_UNAVAILABLE, "Server busy", "Too many searches in progress, try again later");
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Object> handleAllExceptions(Exception ex) {
+        logger.error("Unexpected error occurred", ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error", "An unexpected error occurred");
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String error, String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", error);
+        body.put("message", message);
+        return new ResponseEntity<>(body, status);
+    }
+}
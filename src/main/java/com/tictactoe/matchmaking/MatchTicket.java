@@ -0,0 +1,95 @@
+package com.tictactoe.matchmaking;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A player waiting for an opponent. The state only changes by compare-and-set, so a
+ * cancel racing the matching tick is decided by whichever gets there first, without
+ * a lock. The seat is written before the state turns MATCHED, so anyone who sees
+ * MATCHED also sees the game and the symbol.
+ */
+public class MatchTicket {
+    public enum State {
+        // In one of this node's queues
+        WAITING,
+        // Taken by the matching tick, which either matches it or puts it back
+        RESERVED,
+        // Waiting in Redis for a player on any node
+        PUBLISHED,
+        MATCHED,
+        CANCELLED
+    }
+
+    private final String id;
+    private final String bucket;
+    private final long joinedAt;
+    private final AtomicReference<State> state;
+    private volatile String gameId;
+    private volatile String symbol;
+    private volatile long settledAt;
+
+    MatchTicket(String id, String bucket, long joinedAt) {
+        this.id = id;
+        this.bucket = bucket;
+        this.joinedAt = joinedAt;
+        this.state = new AtomicReference<>(State.WAITING);
+    }
+
+    // A ticket of another node, known here only by the result it left in Redis
+    MatchTicket(String id, String gameId, String symbol) {
+        this(id, null, 0);
+        this.gameId = gameId;
+        this.symbol = symbol;
+        this.state.set(gameId == null ? State.CANCELLED : State.MATCHED);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public long getJoinedAt() {
+        return joinedAt;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    // Players only see whether they are still waiting
+    public boolean isWaiting() {
+        State current = state.get();
+        return current == State.WAITING || current == State.RESERVED || current == State.PUBLISHED;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    long getSettledAt() {
+        return settledAt;
+    }
+
+    boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        if (to == State.MATCHED || to == State.CANCELLED) {
+            settledAt = System.currentTimeMillis();
+        }
+        return true;
+    }
+
+    boolean match(State from, String gameId, String symbol) {
+        this.gameId = gameId;
+        this.symbol = symbol;
+        return transition(from, State.MATCHED);
+    }
+}
@@ -0,0 +1,331 @@
+package com.tictactoe.matchmaking;
+
+import com.tictactoe.matchmaking.MatchTicket.State;
+import com.tictactoe.repository.MatchmakingRepository;
+import com.tictactoe.service.GameService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pairs players who want a game against another person. Joining drops a ticket into
+ * one of several lock-free queues of its bucket, a difficulty or skill band, so
+ * concurrent joins rarely touch the same queue and never wait for each other or for
+ * matching. A matching tick drains each bucket's queues in one batch and pairs the
+ * tickets oldest first. With cross-node matching on, the one ticket a bucket may have
+ * left over is paired through Redis with a ticket left over on another node, so Redis
+ * sees one round trip per bucket and tick instead of one per join.
+ */
+@Service
+@ConditionalOnProperty(name = "game.matchmaking.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MatchmakingService {
+    private static final Logger logger = LoggerFactory.getLogger(MatchmakingService.class);
+    private static final String CANCELLED = "cancelled";
+    // Tickets taken from Redis may have been cancelled meanwhile, give up on the bucket after this many
+    private static final int MAX_REMOTE_ATTEMPTS = 8;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, MatchTicket> tickets = new ConcurrentHashMap<>();
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final GameService gameService;
+    private final MatchmakingRepository matchmakingRepository;
+    private final int shards;
+    private final boolean crossNode;
+    private final Duration maxWait;
+    private final Duration resultTtl;
+
+    @Value("${game.matchmaking.max-buckets}")
+    private int maxBuckets;
+
+    @Autowired
+    public MatchmakingService(GameService gameService, MatchmakingRepository matchmakingRepository,
+                              @Value("${game.matchmaking.shards}") int shards,
+                              @Value("${game.matchmaking.cross-node}") boolean crossNode,
+                              @Value("${game.matchmaking.max-wait-ms}") long maxWaitMs,
+                              @Value("${game.matchmaking.result-ttl-ms}") long resultTtlMs) {
+        this.gameService = gameService;
+        this.matchmakingRepository = matchmakingRepository;
+        this.shards = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.crossNode = crossNode;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.resultTtl = Duration.ofMillis(resultTtlMs);
+    }
+
+    public MatchTicket join(String bucket) {
+        Bucket queues = buckets.get(bucket);
+        if (queues == null) {
+            queues = buckets.computeIfAbsent(bucket, this::newBucket);
+        }
+
+        MatchTicket ticket = new MatchTicket(UUID.randomUUID().toString(), bucket, System.currentTimeMillis());
+        tickets.put(ticket.getId(), ticket);
+        queues.offer(ticket);
+        return ticket;
+    }
+
+    // Joins for different new buckets create them at the same time, so the cap is counted, not read from the map
+    private Bucket newBucket(String bucket) {
+        if (bucketCount.incrementAndGet() > maxBuckets) {
+            bucketCount.decrementAndGet();
+            throw new IllegalArgumentException("At most " + maxBuckets + " matchmaking buckets, "
+                    + bucket + " is not one of them");
+        }
+        return new Bucket(shards);
+    }
+
+    // Tickets of other nodes are found by their result once they are matched or cancelled
+    public Optional<MatchTicket> findTicket(String ticketId) {
+        MatchTicket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            return crossNode
+                    ? matchmakingRepository.findResult(ticketId).map(result -> fromResult(ticketId, result))
+                    : Optional.empty();
+        }
+        if (ticket.getState() == State.PUBLISHED) {
+            matchmakingRepository.findResult(ticketId).ifPresent(result -> settle(ticket, result));
+        }
+        return Optional.of(ticket);
+    }
+
+    /**
+     * Cancels a ticket that is still waiting.
+     *
+     * @return false if the ticket was matched or is being matched right now
+     */
+    public boolean cancel(MatchTicket ticket) {
+        if (ticket.transition(State.WAITING, State.CANCELLED)) {
+            // The next tick drops it from its queue
+            return true;
+        }
+        if (ticket.getState() == State.PUBLISHED) {
+            return cancelPublished(ticket);
+        }
+        return ticket.getState() == State.CANCELLED;
+    }
+
+    // Another node may take the ticket at the same moment, the result decides who was first
+    private boolean cancelPublished(MatchTicket ticket) {
+        if (matchmakingRepository.claimResult(ticket.getId(), CANCELLED, resultTtl)) {
+            matchmakingRepository.removeWaiting(ticket.getBucket(), ticket.getId());
+            ticket.transition(State.PUBLISHED, State.CANCELLED);
+            return true;
+        }
+        matchmakingRepository.findResult(ticket.getId()).ifPresent(result -> settle(ticket, result));
+        return ticket.getState() == State.CANCELLED;
+    }
+
+    @Scheduled(fixedDelayString = "${game.matchmaking.tick-ms}")
+    public void matchWaitingPlayers() {
+        long now = System.currentTimeMillis();
+        Map<String, String> results = new HashMap<>();
+        int matched = 0;
+        for (Map.Entry<String, Bucket> bucket : buckets.entrySet()) {
+            matched += matchBucket(bucket.getKey(), bucket.getValue(), now, results);
+        }
+
+        if (crossNode && !results.isEmpty()) {
+            try {
+                matchmakingRepository.saveResults(results, resultTtl);
+            } catch (RuntimeException e) {
+                // Players polling this node still see their games
+                logger.warn("Failed to share {} match results", results.size(), e);
+            }
+        }
+        if (matched > 0) {
+            logger.debug("Matched {} pairs of players", matched);
+        }
+    }
+
+    private int matchBucket(String bucket, Bucket queues, long now, Map<String, String> results) {
+        List<MatchTicket> waiting = queues.drain();
+        if (waiting.isEmpty()) {
+            return 0;
+        }
+        waiting.sort(Comparator.comparingLong(MatchTicket::getJoinedAt));
+
+        int matched = 0;
+        try {
+            MatchTicket unpaired = null;
+            for (MatchTicket ticket : waiting) {
+                if (now - ticket.getJoinedAt() > maxWait.toMillis()) {
+                    ticket.transition(State.WAITING, State.CANCELLED);
+                }
+                // Cancelled since it was queued
+                if (!ticket.transition(State.WAITING, State.RESERVED)) {
+                    continue;
+                }
+                if (unpaired == null) {
+                    unpaired = ticket;
+                    continue;
+                }
+                startGame(unpaired, ticket, results);
+                unpaired = null;
+                matched++;
+            }
+
+            if (unpaired != null && crossNode && matchAcrossNodes(bucket, unpaired)) {
+                matched++;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Matchmaking failed in bucket {}, its players wait for the next tick", bucket, e);
+        } finally {
+            // Whatever was not matched or published goes back, to be matched by age on the next tick
+            for (MatchTicket ticket : waiting) {
+                if (ticket.transition(State.RESERVED, State.WAITING) || ticket.getState() == State.WAITING) {
+                    queues.offer(ticket);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private void startGame(MatchTicket first, MatchTicket second, Map<String, String> results) {
+        String gameId = UUID.randomUUID().toString();
+        gameService.createVersusGame(gameId);
+
+        // Neither player chose a symbol, so who moves first is drawn
+        boolean firstIsX = ThreadLocalRandom.current().nextBoolean();
+        first.match(State.RESERVED, gameId, firstIsX ? "X" : "O");
+        second.match(State.RESERVED, gameId, firstIsX ? "O" : "X");
+        results.put(first.getId(), result(first));
+        results.put(second.getId(), result(second));
+    }
+
+    // Pairs the ticket this node could not match with one left over on any node, or publishes it for them
+    private boolean matchAcrossNodes(String bucket, MatchTicket ticket) {
+        String gameId = null;
+        try {
+            for (int attempt = 0; attempt < MAX_REMOTE_ATTEMPTS; attempt++) {
+                String otherId = matchmakingRepository.takeOrPublish(bucket, ticket.getId(), maxWait);
+                if (otherId == null) {
+                    ticket.transition(State.RESERVED, State.PUBLISHED);
+                    return false;
+                }
+
+                // The game must exist before the other player can learn its ID from the result
+                if (gameId == null) {
+                    try {
+                        gameId = UUID.randomUUID().toString();
+                        gameService.createVersusGame(gameId);
+                    } catch (RuntimeException e) {
+                        gameId = null;
+                        matchmakingRepository.returnWaiting(bucket, otherId);
+                        throw e;
+                    }
+                }
+
+                boolean ticketIsX = ThreadLocalRandom.current().nextBoolean();
+                // Fails if the other ticket was cancelled after it was published, the game is tried with the next one
+                if (matchmakingRepository.claimResult(otherId, gameId + ":" + (ticketIsX ? "O" : "X"), resultTtl)) {
+                    ticket.match(State.RESERVED, gameId, ticketIsX ? "X" : "O");
+                    matchmakingRepository.claimResult(ticket.getId(), result(ticket), resultTtl);
+                    gameId = null;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            if (gameId != null) {
+                discardGame(gameId);
+            }
+        }
+    }
+
+    // A game created for a match that did not happen, nobody knows its ID
+    private void discardGame(String gameId) {
+        try {
+            gameService.discardVersusGame(gameId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to discard unused game {}, it expires at its time limit", gameId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.matchmaking.cleanup-interval-ms}")
+    public void removeSettledTickets() {
+        long now = System.currentTimeMillis();
+        for (MatchTicket ticket : tickets.values()) {
+            State state = ticket.getState();
+            if (state == State.PUBLISHED && now - ticket.getJoinedAt() > maxWait.toMillis()) {
+                try {
+                    cancelPublished(ticket);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to cancel timed out ticket {}", ticket.getId(), e);
+                }
+            } else if ((state == State.MATCHED || state == State.CANCELLED)
+                    && now - ticket.getSettledAt() > resultTtl.toMillis()) {
+                tickets.remove(ticket.getId());
+            }
+        }
+    }
+
+    private static String result(MatchTicket ticket) {
+        return ticket.getGameId() + ":" + ticket.getSymbol();
+    }
+
+    private static void settle(MatchTicket ticket, String result) {
+        if (result.equals(CANCELLED)) {
+            ticket.transition(State.PUBLISHED, State.CANCELLED);
+        } else {
+            int separator = result.lastIndexOf(':');
+            ticket.match(State.PUBLISHED, result.substring(0, separator), result.substring(separator + 1));
+        }
+    }
+
+    private static MatchTicket fromResult(String ticketId, String result) {
+        if (result.equals(CANCELLED)) {
+            return new MatchTicket(ticketId, null, null);
+        }
+        int separator = result.lastIndexOf(':');
+        return new MatchTicket(ticketId, result.substring(0, separator), result.substring(separator + 1));
+    }
+
+    // The queues of one bucket, each join picks one at random so concurrent joins spread over them
+    private static class Bucket {
+        private final List<Queue<MatchTicket>> queues;
+
+        Bucket(int shards) {
+            queues = new ArrayList<>(shards);
+            for (int i = 0; i < shards; i++) {
+                queues.add(new ConcurrentLinkedQueue<>());
+            }
+        }
+
+        void offer(MatchTicket ticket) {
+            queues.get(ThreadLocalRandom.current().nextInt(queues.size())).offer(ticket);
+        }
+
+        // Only the matching tick drains, joins keep offering while it does
+        List<MatchTicket> drain() {
+            List<MatchTicket> tickets = new ArrayList<>();
+            for (Queue<MatchTicket> queue : queues) {
+                MatchTicket ticket;
+                while ((ticket = queue.poll()) != null) {
+                    if (ticket.getState() == State.WAITING) {
+                        tickets.add(ticket);
+                    }
+                }
+            }
+            return tickets;
+        }
+    }
+}
@@ -2,10 +2,39 @@ package com.tictactoe.model;
 
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Board implements Serializable {
+    private static final int WIN_LENGTH = 5;
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    // The five-cell windows through each cell, shared by all boards of a size
+    private static final Map<Integer, int[][]> CELL_WINDOWS = new ConcurrentHashMap<>();
+
+    // The image of each cell under every symmetry, shared by all boards of a size
+    private static final Map<Integer, int[][]> CELL_SYMMETRIES = new ConcurrentHashMap<>();
+
     private final int size;
     private final Cell[][] cells;
+    private final int[][] cellWindows;
+    private final int[][] cellSymmetries;
+
+    // Stones of each player in every window, and the windows each player can still complete
+    private final int[] xStonesInWindow;
+    private final int[] oStonesInWindow;
+    private int liveWindowsX;
+    private int liveWindowsO;
+    private int stoneCount;
+
+    // Windows free of opponent stones by the number of own stones in them, for X and for O
+    private final int[] openWindowsX = new int[WIN_LENGTH];
+    private final int[] openWindowsO = new int[WIN_LENGTH];
+
+    // Zobrist hash of the board's image under each symmetry, indexed by ordinal
+    private final long[] symmetryHashes = new long[Symmetry.values().length];
 
     public Board(int size) {
         this.size = size;
@@ -15,6 +44,64 @@ public class Board implements Serializable {
                 cells[row][col] = new Cell(row, col);
             }
         }
+
+        this.cellWindows = CELL_WINDOWS.computeIfAbsent(size, Board::buildCellWindows);
+        this.cellSymmetries = CELL_SYMMETRIES.computeIfAbsent(size, Board::buildCellSymmetries);
+        int windowCount = countWindows(size);
+        this.xStonesInWindow = new int[windowCount];
+        this.oStonesInWindow = new int[windowCount];
+        this.liveWindowsX = windowCount;
+        this.liveWindowsO = windowCount;
+        this.openWindowsX[0] = windowCount;
+        this.openWindowsO[0] = windowCount;
+    }
+
+    private static int countWindows(int size) {
+        int span = Math.max(0, size - WIN_LENGTH + 1);
+        return 2 * size * span + 2 * span * span;
+    }
+
+    private static int[][] buildCellWindows(int size) {
+        List<List<Integer>> windowsByCell = new ArrayList<>(size * size);
+        for (int cell = 0; cell < size * size; cell++) {
+            windowsByCell.add(new ArrayList<>());
+        }
+
+        int window = 0;
+        for (int[] direction : DIRECTIONS) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int endRow = row + (WIN_LENGTH - 1) * direction[0];
+                    int endCol = col + (WIN_LENGTH - 1) * direction[1];
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    for (int i = 0; i < WIN_LENGTH; i++) {
+                        windowsByCell.get((row + i * direction[0]) * size + col + i * direction[1]).add(window);
+                    }
+                    window++;
+                }
+            }
+        }
+
+        int[][] cellWindows = new int[size * size][];
+        for (int cell = 0; cell < cellWindows.length; cell++) {
+            cellWindows[cell] = windowsByCell.get(cell).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return cellWindows;
+    }
+
+    private static int[][] buildCellSymmetries(int size) {
+        int[][] cellSymmetries = new int[Symmetry.values().length][size * size];
+        for (Symmetry symmetry : Symmetry.values()) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    cellSymmetries[symmetry.ordinal()][row * size + col] =
+                            symmetry.row(row, col, size) * size + symmetry.col(row, col, size);
+                }
+            }
+        }
+        return cellSymmetries;
     }
 
     public int getSize() {
@@ -31,83 +118,176 @@ public class Board implements Serializable {
     public boolean makeMove(int row, int col, String symbol) {
         if (isValidPosition(row, col) && cells[row][col].isEmpty()) {
             cells[row][col].setValue(symbol);
+            stoneCount++;
+            toggleSymmetryHashes(row * size + col, symbol);
+
+            boolean x = "X".equals(symbol);
+            for (int window : cellWindows[row * size + col]) {
+                countOpenWindow(window, -1);
+                // The first stone of a player in a window closes it for the other player
+                if (x) {
+                    if (xStonesInWindow[window]++ == 0) {
+                        liveWindowsO--;
+                    }
+                } else if (oStonesInWindow[window]++ == 0) {
+                    liveWindowsX--;
+                }
+                countOpenWindow(window, 1);
+            }
             return true;
         }
         return false;
     }
 
+    // Take back a stone, the inverse of makeMove
+    public boolean undoMove(int row, int col) {
+        if (!isValidPosition(row, col) || cells[row][col].isEmpty()) {
+            return false;
+        }
+
+        String symbol = cells[row][col].getValue();
+        boolean x = "X".equals(symbol);
+        cells[row][col].setValue("");
+        stoneCount--;
+        toggleSymmetryHashes(row * size + col, symbol);
+
+        for (int window : cellWindows[row * size + col]) {
+            countOpenWindow(window, -1);
+            if (x) {
+                if (--xStonesInWindow[window] == 0) {
+                    liveWindowsO++;
+                }
+            } else if (--oStonesInWindow[window] == 0) {
+                liveWindowsX++;
+            }
+            countOpenWindow(window, 1);
+        }
+        return true;
+    }
+
+    // Adds or removes a window's contribution to the open window counts; a completed five is not counted
+    private void countOpenWindow(int window, int delta) {
+        int xs = xStonesInWindow[window];
+        int os = oStonesInWindow[window];
+        if (os == 0 && xs < WIN_LENGTH) {
+            openWindowsX[xs] += delta;
+        }
+        if (xs == 0 && os < WIN_LENGTH) {
+            openWindowsO[os] += delta;
+        }
+    }
+
+    private void toggleSymmetryHashes(int cell, String symbol) {
+        for (int i = 0; i < symmetryHashes.length; i++) {
+            symmetryHashes[i] ^= Zobrist.key(cellSymmetries[i][cell], symbol);
+        }
+    }
+
+    public long getSymmetryHash(Symmetry symmetry) {
+        return symmetryHashes[symmetry.ordinal()];
+    }
+
     public boolean isValidPosition(int row, int col) {
         return row >= 0 && row < size && col >= 0 && col < size;
     }
 
     public boolean isFull() {
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                if (cells[row][col].isEmpty()) {
-                    return false;
-                }
+        return stoneCount == size * size;
+    }
+
+    public int getStoneCount() {
+        return stoneCount;
+    }
+
+    // Copies the number of windows free of opponent stones holding k of the player's stones into counts[k]
+    public void copyOpenWindowCounts(String symbol, int[] counts) {
+        System.arraycopy("X".equals(symbol) ? openWindowsX : openWindowsO, 0, counts, 0, WIN_LENGTH);
+    }
+
+    // True while the player has at least one five-cell window free of opponent stones
+    public boolean canStillWin(String symbol) {
+        return "X".equals(symbol) ? liveWindowsX > 0 : liveWindowsO > 0;
+    }
+
+    // True if every window through the cell is blocked for both players,
+    // so a stone there can neither build nor stop a five
+    public boolean isDeadCell(int row, int col) {
+        for (int window : cellWindows[row * size + col]) {
+            if (xStonesInWindow[window] == 0 || oStonesInWindow[window] == 0) {
+                return false;
             }
         }
         return true;
     }
 
-    // Check for 5 in a row (horizontal, vertical, or diagonal)
-    public int[] checkWinningSequence(int row, int col, String symbol) {
-        // Check horizontal
-        int[] sequence = checkDirection(row, col, 0, 1, symbol);
-        if (sequence != null) return sequence;
-
-        // Check vertical
-        sequence = checkDirection(row, col, 1, 0, symbol);
-        if (sequence != null) return sequence;
-
-        // Check diagonal (top-left to bottom-right)
-        sequence = checkDirection(row, col, 1, 1, symbol);
-        if (sequence != null) return sequence;
+    // The most stones the player has in any window through the cell that is free of opponent stones,
+    // so a stone placed there would make a line of that length plus one
+    public int longestOpenWindow(int row, int col, String symbol) {
+        boolean x = "X".equals(symbol);
+        int longest = 0;
+        for (int window : cellWindows[row * size + col]) {
+            int own = x ? xStonesInWindow[window] : oStonesInWindow[window];
+            int opponent = x ? oStonesInWindow[window] : xStonesInWindow[window];
+            if (opponent == 0 && own > longest) {
+                longest = own;
+            }
+        }
+        return longest;
+    }
 
-        // Check diagonal (top-right to bottom-left)
-        sequence = checkDirection(row, col, 1, -1, symbol);
-        if (sequence != null) return sequence;
+    // True if the player's stone at the cell completes five in a row, without allocating anything
+    public boolean isWinningMove(int row, int col, String symbol) {
+        int[] stones = "X".equals(symbol) ? xStonesInWindow : oStonesInWindow;
+        for (int window : cellWindows[row * size + col]) {
+            if (stones[window] == WIN_LENGTH) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    // Check for 5 in a row (horizontal, vertical, or diagonal), the coordinates are only built for a win
+    public int[] checkWinningSequence(int row, int col, String symbol) {
+        if (!isWinningMove(row, col, symbol)) {
+            return null;
+        }
+        for (int[] direction : DIRECTIONS) {
+            int[] sequence = checkDirection(row, col, direction[0], direction[1], symbol);
+            if (sequence != null) {
+                return sequence;
+            }
+        }
         return null;
     }
 
+    // The five cells of the line through the cell, starting from its farthest stone backwards
     private int[] checkDirection(int row, int col, int rowDir, int colDir, String symbol) {
-        int count = 1;
-        int[] sequence = new int[10]; // Store the winning sequence coordinates (5 pairs)
-        sequence[0] = row;
-        sequence[1] = col;
+        int forward = countStones(row, col, rowDir, colDir, symbol);
+        int backward = countStones(row, col, -rowDir, -colDir, symbol);
+        if (forward + backward + 1 < WIN_LENGTH) {
+            return null;
+        }
 
-        // Check forward
-        for (int i = 1; i < 5; i++) {
-            int newRow = row + i * rowDir;
-            int newCol = col + i * colDir;
-            if (!isValidPosition(newRow, newCol) || !cells[newRow][newCol].getValue().equals(symbol)) {
-                break;
-            }
-            count++;
-            sequence[i*2] = newRow;
-            sequence[i*2+1] = newCol;
+        int[] sequence = new int[WIN_LENGTH * 2];
+        for (int i = 0; i < WIN_LENGTH; i++) {
+            sequence[i * 2] = row + (i - backward) * rowDir;
+            sequence[i * 2 + 1] = col + (i - backward) * colDir;
         }
+        return sequence;
+    }
 
-        // Check backward
-        for (int i = 1; i < 5; i++) {
-            int newRow = row - i * rowDir;
-            int newCol = col - i * colDir;
+    // The player's stones next to the cell in one direction, up to four
+    private int countStones(int row, int col, int rowDir, int colDir, String symbol) {
+        int count = 0;
+        for (int i = 1; i < WIN_LENGTH; i++) {
+            int newRow = row + i * rowDir;
+            int newCol = col + i * colDir;
             if (!isValidPosition(newRow, newCol) || !cells[newRow][newCol].getValue().equals(symbol)) {
                 break;
             }
             count++;
-            // Shift existing coordinates to make room for backward checks
-            for (int j = 8; j >= 0; j -= 2) {
-                sequence[j+2] = sequence[j];
-                sequence[j+3] = sequence[j+1];
-            }
-            sequence[0] = newRow;
-            sequence[1] = newCol;
         }
-
-        return count >= 5 ? sequence : null;
+        return count;
     }
 
     // Clone the board for AI evaluation
@@ -115,7 +295,9 @@ public class Board implements Serializable {
         Board clonedBoard = new Board(this.size);
         for (int row = 0; row < size; row++) {
             for (int col = 0; col < size; col++) {
-                clonedBoard.cells[row][col].setValue(this.cells[row][col].getValue());
+                if (!cells[row][col].isEmpty()) {
+                    clonedBoard.makeMove(row, col, cells[row][col].getValue());
+                }
             }
         }
         return clonedBoard;
@@ -3,9 +3,13 @@ package com.tictactoe.model;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.UUID;
 
 public class Game implements Serializable {
+    // Difficulty of a game between two people, the second seat is human too
+    public static final String VERSUS = "versus";
+
     private String id;
     private Board board;
     private Player humanPlayer;
@@ -13,23 +17,63 @@ public class Game implements Serializable {
     private Player currentPlayer;
     private GameState gameState;
     private String difficultyLevel;
+    private String playerName; // Optional name the human player is ranked under, null for anonymous games
     private LocalDateTime startTime;
     private LocalDateTime lastMoveTime;
     private int timeLimit;
     private int[] winningSequence; // Stores the winning sequence coordinates if game is won
+    private int[] moves; // Cell indices (row * size + col) in the order they were played
+    private int moveCount;
 
     public Game(String symbol, String difficultyLevel) {
-        this.id = UUID.randomUUID().toString();
+        this(symbol, difficultyLevel, null);
+    }
+
+    public Game(String symbol, String difficultyLevel, String playerName) {
+        this(UUID.randomUUID().toString(), symbol, difficultyLevel, playerName);
+    }
+
+    public Game(String id, String symbol, String difficultyLevel, String playerName) {
+        this.id = id;
         this.board = new Board(20);
         this.humanPlayer = new Player(symbol, "HUMAN");
-        this.computerPlayer = new Player(symbol.equals("X") ? "O" : "X", "COMPUTER");
+        this.computerPlayer = opponentOf(symbol, difficultyLevel);
         this.currentPlayer = symbol.equals("X") ? humanPlayer : computerPlayer;
         this.gameState = GameState.IN_PROGRESS;
         this.difficultyLevel = difficultyLevel;
+        this.playerName = playerName;
         this.startTime = LocalDateTime.now();
         this.lastMoveTime = this.startTime;
         this.timeLimit = 15; // 15 minutes
         this.winningSequence = null;
+        this.moves = new int[16];
+        this.moveCount = 0;
+    }
+
+    // Rebuilds a stored game by replaying its moves, X always moves first
+    public Game(String id, String symbol, String difficultyLevel, String playerName, int boardSize,
+                LocalDateTime startTime, int timeLimit, int[] moves) {
+        this.id = id;
+        this.board = new Board(boardSize);
+        this.humanPlayer = new Player(symbol, "HUMAN");
+        this.computerPlayer = opponentOf(symbol, difficultyLevel);
+        this.gameState = GameState.IN_PROGRESS;
+        this.difficultyLevel = difficultyLevel;
+        this.playerName = playerName;
+        this.startTime = startTime;
+        this.lastMoveTime = startTime;
+        this.timeLimit = timeLimit;
+        this.moves = Arrays.copyOf(moves, Math.max(16, moves.length));
+        this.moveCount = moves.length;
+        for (int i = 0; i < moves.length; i++) {
+            board.makeMove(moves[i] / boardSize, moves[i] % boardSize, i % 2 == 0 ? "X" : "O");
+        }
+        this.currentPlayer = (moves.length % 2 == 0) == symbol.equals("X") ? humanPlayer : computerPlayer;
+    }
+
+    // In a game between two people the computer's seat is taken by the second player
+    private static Player opponentOf(String symbol, String difficultyLevel) {
+        return new Player(symbol.equals("X") ? "O" : "X", VERSUS.equals(difficultyLevel) ? "HUMAN" : "COMPUTER");
     }
 
     // Getters and setters
@@ -69,6 +113,14 @@ public class Game implements Serializable {
         return difficultyLevel;
     }
 
+    public boolean isVersus() {
+        return VERSUS.equals(difficultyLevel);
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
     public LocalDateTime getStartTime() {
         return startTime;
     }
@@ -93,7 +145,63 @@ public class Game implements Serializable {
         this.winningSequence = winningSequence;
     }
 
+    public int[] getMoves() {
+        return Arrays.copyOf(moves, moveCount);
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
     // Helper methods
+    public boolean playMove(int row, int col) {
+        if (!board.makeMove(row, col, currentPlayer.getSymbol())) {
+            return false;
+        }
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[moveCount++] = row * board.getSize() + col;
+        lastMoveTime = LocalDateTime.now();
+        return true;
+    }
+
+    // Takes back the last move, the player who made it is to move again
+    public void undoLastMove() {
+        if (moveCount == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int cell = moves[--moveCount];
+        board.undoMove(cell / board.getSize(), cell % board.getSize());
+        switchPlayer();
+        winningSequence = null;
+        lastMoveTime = LocalDateTime.now();
+    }
+
+    /**
+     * Starts a new anonymous game from the position after the first {@code plies} moves
+     * of this one, with the same symbols, difficulty and time limit. The branch gets its
+     * own copy of that prefix of the move log, and its board is built by replaying it
+     * rather than copying this board.
+     */
+    public Game branch(int plies) {
+        if (plies < 0 || plies > moveCount) {
+            throw new IllegalArgumentException("Plies must be between 0 and " + moveCount + ", got " + plies);
+        }
+
+        Game branch = new Game(humanPlayer.getSymbol(), difficultyLevel, null);
+        for (int i = 0; i < plies; i++) {
+            branch.board.makeMove(moves[i] / board.getSize(), moves[i] % board.getSize(), i % 2 == 0 ? "X" : "O");
+        }
+        branch.timeLimit = timeLimit;
+        branch.moves = Arrays.copyOf(moves, Math.max(16, plies));
+        branch.moveCount = plies;
+        branch.currentPlayer = (plies % 2 == 0) == humanPlayer.getSymbol().equals("X")
+                ? branch.humanPlayer
+                : branch.computerPlayer;
+        return branch;
+    }
+
     public void switchPlayer() {
         this.currentPlayer = (currentPlayer == humanPlayer) ? computerPlayer : humanPlayer;
     }
@@ -0,0 +1,25 @@
+package com.tictactoe.model;
+
+public class LeaderboardEntry {
+    private final int rank;
+    private final String playerName;
+    private final long points; // League points: 3 for a win, 1 for a draw
+
+    public LeaderboardEntry(int rank, String playerName, long points) {
+        this.rank = rank;
+        this.playerName = playerName;
+        this.points = points;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public long getPoints() {
+        return points;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tictactoe.model;
+
+/**
+ * Key of a position that is the same for all 8 rotations and reflections of the
+ * board. The canonical form is the symmetric image with the smallest Zobrist
+ * hash; the board maintains the hashes of all 8 images incrementally, so
+ * computing a key costs 8 comparisons. Moves found for the canonical position
+ * are mapped back to the actual board with {@link #fromCanonical(Move)}.
+ */
+public final class PositionKey {
+    private final long key;
+    private final Symmetry symmetry;
+    private final int size;
+
+    private PositionKey(long key, Symmetry symmetry, int size) {
+        this.key = key;
+        this.symmetry = symmetry;
+        this.size = size;
+    }
+
+    public static PositionKey of(Board board, String sideToMove) {
+        Symmetry canonical = Symmetry.IDENTITY;
+        long minHash = board.getSymmetryHash(canonical);
+        for (Symmetry symmetry : Symmetry.values()) {
+            long hash = board.getSymmetryHash(symmetry);
+            if (Long.compareUnsigned(hash, minHash) < 0) {
+                minHash = hash;
+                canonical = symmetry;
+            }
+        }
+        return new PositionKey(minHash ^ Zobrist.sideToMove(sideToMove), canonical, board.getSize());
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    // The transform from the actual board to the canonical one
+    public Symmetry getSymmetry() {
+        return symmetry;
+    }
+
+    public Move toCanonical(Move move) {
+        return symmetry.apply(move, size);
+    }
+
+    public Move fromCanonical(Move move) {
+        return symmetry.inverse().apply(move, size);
+    }
+}
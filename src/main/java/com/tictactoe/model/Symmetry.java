@@ -0,0 +1,61 @@
+package com.tictactoe.model;
+
+// The 8 rotations and reflections of a square board
+public enum Symmetry {
+    IDENTITY,
+    ROTATE_90,
+    ROTATE_180,
+    ROTATE_270,
+    FLIP_HORIZONTAL,
+    FLIP_VERTICAL,
+    TRANSPOSE,
+    ANTI_TRANSPOSE;
+
+    public int row(int row, int col, int size) {
+        switch (this) {
+            case ROTATE_90:
+            case TRANSPOSE:
+                return col;
+            case ROTATE_180:
+            case FLIP_VERTICAL:
+                return size - 1 - row;
+            case ROTATE_270:
+            case ANTI_TRANSPOSE:
+                return size - 1 - col;
+            default:
+                return row;
+        }
+    }
+
+    public int col(int row, int col, int size) {
+        switch (this) {
+            case ROTATE_90:
+            case ANTI_TRANSPOSE:
+                return size - 1 - row;
+            case ROTATE_180:
+            case FLIP_HORIZONTAL:
+                return size - 1 - col;
+            case ROTATE_270:
+            case TRANSPOSE:
+                return row;
+            default:
+                return col;
+        }
+    }
+
+    public Move apply(Move move, int size) {
+        return new Move(row(move.getRow(), move.getCol(), size), col(move.getRow(), move.getCol(), size));
+    }
+
+    // Only the quarter turns are not their own inverse
+    public Symmetry inverse() {
+        switch (this) {
+            case ROTATE_90:
+                return ROTATE_270;
+            case ROTATE_270:
+                return ROTATE_90;
+            default:
+                return this;
+        }
+    }
+}
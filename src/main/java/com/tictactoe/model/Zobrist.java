@@ -0,0 +1,42 @@
+package com.tictactoe.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for hashing board positions. A position hash is the XOR of the
+ * keys of every occupied cell, so it can be updated incrementally as stones
+ * are placed and removed.
+ */
+public final class Zobrist {
+    public static final int MAX_CELLS = 32 * 32;
+
+    private static final long[][] KEYS = new long[2][MAX_CELLS];
+    private static final long SIDE_TO_MOVE_O;
+
+    static {
+        // Fixed seed so hashes are stable across nodes and restarts
+        SplittableRandom random = new SplittableRandom(0x7A0B12157L);
+        for (int player = 0; player < 2; player++) {
+            for (int cell = 0; cell < MAX_CELLS; cell++) {
+                KEYS[player][cell] = random.nextLong();
+            }
+        }
+        SIDE_TO_MOVE_O = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long key(int cellIndex, String symbol) {
+        return KEYS["X".equals(symbol) ? 0 : 1][cellIndex];
+    }
+
+    public static long sideToMove(String symbol) {
+        return "O".equals(symbol) ? SIDE_TO_MOVE_O : 0L;
+    }
+
+    // Maintained by the board as stones are placed and removed
+    public static long hash(Board board) {
+        return board.getSymmetryHash(Symmetry.IDENTITY);
+    }
+}
@@ -0,0 +1,33 @@
+package com.tictactoe.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.tictactoe.Move")
+@Label("Move")
+@Description("A human move request, including the AI reply and saves")
+@Category({"Tic Tac Toe", "Game"})
+@StackTrace(false)
+public class MoveEvent extends jdk.jfr.Event {
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Difficulty Level")
+    public String difficultyLevel;
+
+    @Label("AI Replied")
+    public boolean aiReplied;
+
+    @Label("Game State")
+    @Description("The game state after the move, empty if the move failed")
+    public String gameState;
+}
@@ -0,0 +1,42 @@
+package com.tictactoe.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.tictactoe.RepositoryOperation")
+@Label("Repository Operation")
+@Description("A Redis round trip made by a repository")
+@Category({"Tic Tac Toe", "Redis"})
+@StackTrace(false)
+public class RepositoryOperationEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key")
+    @Description("The key, or the first key of a batch")
+    public String key;
+
+    @Label("Key Count")
+    public int keyCount;
+
+    @Label("Bytes")
+    @Description("Game bytes written or read, 0 for operations without a game payload")
+    @DataAmount
+    public long bytes;
+
+    // Creates and starts timing an event, callers set the payload size and commit it when the round trip ends
+    public static RepositoryOperationEvent start(String operation, String key, int keyCount) {
+        RepositoryOperationEvent event = new RepositoryOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.key = key;
+            event.keyCount = keyCount;
+            event.begin();
+        }
+        return event;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tictactoe.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.tictactoe.SearchIteration")
+@Label("Search Iteration")
+@Description("One iterative-deepening iteration of the hard AI search")
+@Category({"Tic Tac Toe", "AI"})
+@StackTrace(false)
+public class SearchIterationEvent extends jdk.jfr.Event {
+    @Label("Depth")
+    public int depth;
+
+    @Label("Nodes")
+    @Description("Nodes visited by this iteration")
+    public long nodes;
+
+    @Label("Best Row")
+    public int bestRow = -1;
+
+    @Label("Best Column")
+    public int bestCol = -1;
+
+    @Label("Best Score")
+    public int bestScore;
+
+    @Label("Abort Reason")
+    @Description("The budget that cut the iteration short, empty if it completed")
+    public String abortReason;
+}
@@ -0,0 +1,49 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Move;
+import com.tictactoe.service.ai.MoveAnalysis;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+// Search results shared by all nodes, stored as "row,col,score,depth" under the position key
+@Repository
+public class BestMoveRepository {
+    private static final String BEST_MOVE_KEY_PREFIX = "best-move:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration expiration;
+
+    @Autowired
+    public BestMoveRepository(StringRedisTemplate stringRedisTemplate,
+                              @Value("${game.ai.best-move-cache.ttl-hours}") long ttlHours) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.expiration = Duration.ofHours(ttlHours);
+    }
+
+    public Optional<MoveAnalysis> findByPosition(long positionKey) {
+        String value = stringRedisTemplate.opsForValue().get(keyOf(positionKey));
+        if (value == null) {
+            return Optional.empty();
+        }
+        String[] fields = value.split(",");
+        Move move = new Move(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+        return Optional.of(new MoveAnalysis(move, Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                List.of(move)));
+    }
+
+    public void save(long positionKey, MoveAnalysis analysis) {
+        Move move = analysis.getMove();
+        String value = move.getRow() + "," + move.getCol() + "," + analysis.getScore() + "," + analysis.getDepth();
+        stringRedisTemplate.opsForValue().set(keyOf(positionKey), value, expiration);
+    }
+
+    private static String keyOf(long positionKey) {
+        return BEST_MOVE_KEY_PREFIX + Long.toHexString(positionKey);
+    }
+}
@@ -0,0 +1,39 @@
+package com.tictactoe.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Cluster membership, kept in a sorted set of node URLs scored by their last heartbeat
+@Repository
+public class ClusterRepository {
+    private static final String NODES_KEY = "cluster-nodes";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    public ClusterRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public void heartbeat(String nodeUrl, Instant now) {
+        stringRedisTemplate.opsForZSet().add(NODES_KEY, nodeUrl, now.toEpochMilli());
+    }
+
+    public void removeNode(String nodeUrl) {
+        stringRedisTemplate.opsForZSet().remove(NODES_KEY, nodeUrl);
+    }
+
+    public void removeNodesSilentSince(Instant cutoff) {
+        stringRedisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, 0, cutoff.toEpochMilli() - 1);
+    }
+
+    public Set<String> findNodes() {
+        Set<String> nodes = stringRedisTemplate.opsForZSet().range(NODES_KEY, 0, -1);
+        return nodes == null ? Set.of() : new TreeSet<>(nodes);
+    }
+}
@@ -0,0 +1,136 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Packs a game into one byte array: the store's expiry and deadline, a flag byte,
+ * the times, the moves as two-byte cell indices and the strings. The board and the
+ * winning sequence are not stored, they are rebuilt from the moves on decode, so a
+ * game costs a few dozen bytes plus two per move instead of a board of Cell objects.
+ */
+final class CompactGameCodec {
+    static final int EXPIRES_AT_OFFSET = 0;
+    static final int DEADLINE_OFFSET = 8;
+    static final int FLAGS_OFFSET = 16;
+    private static final int HEADER_SIZE = 38;
+
+    private static final int HUMAN_IS_X = 1;
+    private static final int HUMAN_TO_MOVE = 2;
+    static final int STATE_SHIFT = 2;
+    private static final GameState[] STATES = GameState.values();
+
+    private CompactGameCodec() {
+    }
+
+    static byte[] encode(Game game, long expiresAt, long deadline) {
+        int[] moves = game.getMoves();
+        byte[] difficulty = game.getDifficultyLevel().getBytes(StandardCharsets.UTF_8);
+        byte[] playerName = game.getPlayerName() == null ? null : game.getPlayerName().getBytes(StandardCharsets.UTF_8);
+        int size = HEADER_SIZE + 2 * moves.length + 1 + difficulty.length + 1 + (playerName == null ? 0 : playerName.length);
+
+        int flags = game.getGameState().ordinal() << STATE_SHIFT;
+        if (game.getHumanPlayer().getSymbol().equals("X")) {
+            flags |= HUMAN_IS_X;
+        }
+        if (game.getCurrentPlayer() == game.getHumanPlayer()) {
+            flags |= HUMAN_TO_MOVE;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(expiresAt)
+                .putLong(deadline)
+                .put((byte) flags)
+                .put((byte) game.getBoard().getSize())
+                .putShort((short) game.getTimeLimit())
+                .putLong(epochMillis(game.getStartTime()))
+                .putLong(epochMillis(game.getLastMoveTime()))
+                .putShort((short) moves.length);
+        for (int move : moves) {
+            buffer.putShort((short) move);
+        }
+        buffer.put((byte) difficulty.length).put(difficulty);
+        if (playerName == null) {
+            buffer.put((byte) -1);
+        } else {
+            buffer.put((byte) playerName.length).put(playerName);
+        }
+        return buffer.array();
+    }
+
+    static Game decode(String id, byte[] value) {
+        return decode(id, value, 0);
+    }
+
+    // Decodes a game encoded at the given offset of a larger value
+    static Game decode(String id, byte[] value, int offset) {
+        ByteBuffer buffer = ByteBuffer.wrap(value, offset + FLAGS_OFFSET, value.length - offset - FLAGS_OFFSET);
+        int flags = buffer.get();
+        int boardSize = buffer.get();
+        int timeLimit = buffer.getShort();
+        LocalDateTime startTime = dateTime(buffer.getLong());
+        LocalDateTime lastMoveTime = dateTime(buffer.getLong());
+        int[] moves = new int[buffer.getShort()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = buffer.getShort();
+        }
+        String difficulty = readString(buffer);
+        String playerName = readString(buffer);
+
+        Game game = new Game(id, (flags & HUMAN_IS_X) != 0 ? "X" : "O", difficulty, playerName, boardSize,
+                startTime, timeLimit, moves);
+        GameState state = STATES[flags >>> STATE_SHIFT];
+        game.setGameState(state);
+        game.setCurrentPlayer((flags & HUMAN_TO_MOVE) != 0 ? game.getHumanPlayer() : game.getComputerPlayer());
+        game.setLastMoveTime(lastMoveTime);
+        if ((state == GameState.X_WON || state == GameState.O_WON) && moves.length > 0) {
+            int last = moves[moves.length - 1];
+            game.setWinningSequence(game.getBoard().checkWinningSequence(last / boardSize, last % boardSize,
+                    state == GameState.X_WON ? "X" : "O"));
+        }
+        return game;
+    }
+
+    static long expiresAt(byte[] value) {
+        return ByteBuffer.wrap(value).getLong(EXPIRES_AT_OFFSET);
+    }
+
+    static long deadline(byte[] value) {
+        return ByteBuffer.wrap(value).getLong(DEADLINE_OFFSET);
+    }
+
+    static GameState state(byte[] value) {
+        return STATES[(value[FLAGS_OFFSET] & 0xFF) >>> STATE_SHIFT];
+    }
+
+    // Copy with a new deadline, stored values are never changed in place
+    static byte[] withDeadline(byte[] value, long deadline) {
+        byte[] copy = value.clone();
+        ByteBuffer.wrap(copy).putLong(DEADLINE_OFFSET, deadline);
+        return copy;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.get();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime dateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
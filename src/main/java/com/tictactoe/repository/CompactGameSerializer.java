@@ -0,0 +1,48 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores games in Redis in the in-memory store's {@link CompactGameCodec} format,
+ * prefixed with the game ID, so Redis keeps the move log instead of a board of
+ * Cell objects. Expiry and deadline live in Redis itself, the codec's fields for
+ * them are left at zero.
+ */
+public class CompactGameSerializer implements RedisSerializer<Game> {
+    // For Lua scripts reading a stored value: the 1-based position of the flag byte counted
+    // from the ID length, and the divisor that leaves the state's ordinal in the flags
+    static final int SCRIPT_FLAGS_POSITION = 2 + CompactGameCodec.FLAGS_OFFSET;
+    static final int SCRIPT_STATE_DIVISOR = 1 << CompactGameCodec.STATE_SHIFT;
+
+    @Override
+    public byte[] serialize(Game game) {
+        if (game == null) {
+            return null;
+        }
+        byte[] id = game.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = CompactGameCodec.encode(game, 0, 0);
+        return ByteBuffer.allocate(1 + id.length + encoded.length)
+                .put((byte) id.length)
+                .put(id)
+                .put(encoded)
+                .array();
+    }
+
+    @Override
+    public Game deserialize(byte[] value) {
+        if (value == null || value.length == 0) {
+            return null;
+        }
+        int idLength = value[0] & 0xFF;
+        if (value.length < 1 + idLength) {
+            throw new SerializationException("Truncated game value of " + value.length + " bytes");
+        }
+        String id = new String(value, 1, idLength, StandardCharsets.UTF_8);
+        return CompactGameCodec.decode(id, value, 1 + idLength);
+    }
+}
@@ -1,38 +1,56 @@
 package com.tictactoe.repository;
 
 import com.tictactoe.model.Game;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-
-@Repository
-public class GameRepository {
-    private static final String GAME_KEY_PREFIX = "game:";
-    private static final long GAME_EXPIRATION_HOURS = 24;
-
-    private final RedisTemplate<String, Game> redisTemplate;
-
-    @Autowired
-    public GameRepository(RedisTemplate<String, Game> redisTemplate) {
-        this.redisTemplate = redisTemplate;
-    }
-
-    public void save(Game game) {
-        String key = GAME_KEY_PREFIX + game.getId();
-        redisTemplate.opsForValue().set(key, game);
-        redisTemplate.expire(key, GAME_EXPIRATION_HOURS, TimeUnit.HOURS);
-    }
-
-    public Optional<Game> findById(String id) {
-        String key = GAME_KEY_PREFIX + id;
-        Game game = redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(game);
-    }
-
-    public void deleteById(String id) {
-        redisTemplate.delete(GAME_KEY_PREFIX + id);
-    }
-}
\ No newline at end of file
+import java.util.Set;
+
+/**
+ * Stores games and the deadlines of their time limits. The store is selected with
+ * game.store.type: Redis is shared by every node of a cluster, the in-memory store
+ * serves a single node that has no Redis.
+ */
+public interface GameRepository {
+    /**
+     * Saves the game unless its stored copy has already ended. A finished game is final,
+     * so a move read before the expiry sweep ended the game cannot bring it back.
+     *
+     * @return false if the stored game had already ended and was left unchanged
+     */
+    boolean save(Game game);
+
+    /**
+     * Saves the games in one batch, like {@link #save(Game)}. A finished game is only
+     * saved by the caller that claimed its deadline, so a store that keeps result
+     * counters updates them here.
+     *
+     * @return the IDs of the games left unchanged because their stored copy had already ended
+     */
+    Set<String> saveAll(Collection<Game> games);
+
+    Optional<Game> findById(String id);
+
+    // Missing games are left out of the result
+    Map<String, Game> findAllById(List<String> ids);
+
+    void deleteById(String id);
+
+    // Encodes a game the way the store keeps it
+    byte[] encode(Game game);
+
+    void scheduleExpiry(String id, Instant deadline);
+
+    void cancelExpiry(String id);
+
+    void cancelExpiry(Collection<String> ids);
+
+    // IDs of games whose deadline has passed, earliest first
+    List<String> findExpired(Instant now, int limit);
+
+    // Succeeds for exactly one caller per deadline, who then ends the game: the expiry sweep or a final move
+    boolean claimExpiry(String id);
+}
@@ -0,0 +1,37 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+
+// How a finished game counts for the human player, the same in every statistics store
+final class GameResults {
+    static final String WIN = "win";
+    static final String LOSS = "loss";
+    static final String DRAW = "draw";
+
+    private static final int WIN_POINTS = 3;
+    private static final int DRAW_POINTS = 1;
+
+    private GameResults() {
+    }
+
+    static String outcomeOf(Game game) {
+        GameState state = game.getGameState();
+        if (state == GameState.DRAW) {
+            return DRAW;
+        }
+        boolean xWon = state == GameState.X_WON;
+        return xWon == game.getHumanPlayer().getSymbol().equals("X") ? WIN : LOSS;
+    }
+
+    static int pointsFor(String outcome) {
+        switch (outcome) {
+            case WIN:
+                return WIN_POINTS;
+            case DRAW:
+                return DRAW_POINTS;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+
+/**
+ * Published by the in-memory store after each save. Games in Redis reach spectators
+ * through their update channels, games kept in memory through this event.
+ */
+public class GameSavedEvent {
+    private final Game game;
+
+    public GameSavedEvent(Game game) {
+        this.game = game;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+}
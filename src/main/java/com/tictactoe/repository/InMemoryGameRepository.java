@@ -0,0 +1,316 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.exception.GameStoreFullException;
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps games in this JVM for single-node deployments without Redis. Each game is
+ * one {@link CompactGameCodec} byte array keyed by its UUID, so hundreds of thousands
+ * of games fit in a small heap. Expired games are evicted by a background sweep and
+ * are invisible to reads as soon as they expire. When the memory cap is reached,
+ * finished games are evicted early, and if that is not enough new games are refused.
+ * Nothing is shared with other nodes, and results are counted for this node only.
+ */
+@Repository
+@ConditionalOnProperty(name = "game.store.type", havingValue = "memory")
+public class InMemoryGameRepository implements GameRepository {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryGameRepository.class);
+    private static final Duration GAME_EXPIRATION = Duration.ofHours(24);
+    // Estimated cost of an entry besides its array: map node, UUID key, array header and deadline
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Map<UUID, byte[]> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Deadline> deadlines = new ConcurrentSkipListSet<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final ApplicationEventPublisher eventPublisher;
+    private final InMemoryStatisticsRepository statisticsRepository;
+    private final long maxBytes;
+
+    @Value("${game.finished-game-ttl-minutes}")
+    private long finishedGameTtlMinutes;
+
+    @Autowired
+    public InMemoryGameRepository(ApplicationEventPublisher eventPublisher,
+                                  InMemoryStatisticsRepository statisticsRepository,
+                                  @Value("${game.store.memory.max-mb}") long maxMb) {
+        this.eventPublisher = eventPublisher;
+        this.statisticsRepository = statisticsRepository;
+        this.maxBytes = maxMb * 1024 * 1024;
+    }
+
+    @Override
+    public boolean save(Game game) {
+        return saveAll(List.of(game)).isEmpty();
+    }
+
+    @Override
+    public Set<String> saveAll(Collection<Game> games) {
+        long now = System.currentTimeMillis();
+        Set<String> alreadyOver = new HashSet<>();
+        List<Game> saved = new ArrayList<>(games.size());
+        for (Game game : games) {
+            UUID key = UUID.fromString(game.getId());
+            byte[] value = CompactGameCodec.encode(game, now + expirationOf(game).toMillis(), 0);
+            byte[] current = entries.get(key);
+            long reserved = Math.max(0, sizeOf(value) - (current == null ? 0 : sizeOf(current)));
+            reserve(reserved);
+
+            boolean[] written = new boolean[1];
+            boolean[] finished = new boolean[1];
+            entries.compute(key, (k, previous) -> {
+                // A finished game is final, whatever was read before it ended
+                if (previous != null && CompactGameCodec.state(previous) != GameState.IN_PROGRESS) {
+                    usedBytes.addAndGet(-reserved);
+                    return previous;
+                }
+                long change = sizeOf(value);
+                if (previous != null) {
+                    // A save keeps the deadline scheduled for the game
+                    ByteBuffer.wrap(value).putLong(CompactGameCodec.DEADLINE_OFFSET, CompactGameCodec.deadline(previous));
+                    change -= sizeOf(previous);
+                }
+                // Settle the reservation against the entry actually replaced
+                usedBytes.addAndGet(change - reserved);
+                written[0] = true;
+                finished[0] = game.getGameState() != GameState.IN_PROGRESS;
+                return value;
+            });
+
+            if (!written[0]) {
+                alreadyOver.add(game.getId());
+                continue;
+            }
+            saved.add(game);
+            // Only the save that ends the game counts it, a finished game is never saved again
+            if (finished[0]) {
+                statisticsRepository.recordResult(game);
+            }
+        }
+
+        for (Game game : saved) {
+            eventPublisher.publishEvent(new GameSavedEvent(game));
+        }
+        return alreadyOver;
+    }
+
+    private static long sizeOf(byte[] value) {
+        return ENTRY_OVERHEAD + value.length;
+    }
+
+    // Same lifetimes as in Redis, finished games are only kept long enough for clients to see the result
+    private Duration expirationOf(Game game) {
+        return game.getGameState() == GameState.IN_PROGRESS
+                ? GAME_EXPIRATION
+                : Duration.ofMinutes(finishedGameTtlMinutes);
+    }
+
+    private void reserve(long bytes) {
+        if (tryReserve(bytes)) {
+            return;
+        }
+        evictFinishedGames(maxBytes - bytes);
+        if (!tryReserve(bytes)) {
+            logger.warn("In-memory game store is full with {} games", entries.size());
+            throw new GameStoreFullException("The game store is full, try again later");
+        }
+    }
+
+    // Checks the cap and takes the bytes in one step, so concurrent saves cannot overshoot it together
+    private boolean tryReserve(long bytes) {
+        long used;
+        do {
+            used = usedBytes.get();
+            if (used + bytes > maxBytes) {
+                return false;
+            }
+        } while (!usedBytes.compareAndSet(used, used + bytes));
+        return true;
+    }
+
+    // Finished games are already archived, dropping them early only hides the final state sooner
+    private synchronized void evictFinishedGames(long targetBytes) {
+        int evicted = 0;
+        for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+            if (usedBytes.get() <= targetBytes) {
+                break;
+            }
+            byte[] value = entry.getValue();
+            if (CompactGameCodec.state(value) != GameState.IN_PROGRESS && entries.remove(entry.getKey(), value)) {
+                released(entry.getKey(), value);
+                evicted++;
+            }
+        }
+        logger.info("Evicted {} finished games early to stay under the memory cap", evicted);
+    }
+
+    @Scheduled(fixedDelayString = "${game.store.memory.sweep-interval-ms}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+            byte[] value = entry.getValue();
+            // A game saved since it was read has a new expiry, the next sweep looks at it again
+            if (CompactGameCodec.expiresAt(value) <= now && entries.remove(entry.getKey(), value)) {
+                released(entry.getKey(), value);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired games, {} games in memory", evicted, entries.size());
+        }
+    }
+
+    private void released(UUID key, byte[] value) {
+        usedBytes.addAndGet(-sizeOf(value));
+        long deadline = CompactGameCodec.deadline(value);
+        if (deadline != 0) {
+            deadlines.remove(new Deadline(deadline, key));
+        }
+    }
+
+    @Override
+    public byte[] encode(Game game) {
+        return CompactGameCodec.encode(game, 0, 0);
+    }
+
+    @Override
+    public Optional<Game> findById(String id) {
+        byte[] value = find(id);
+        return Optional.ofNullable(value == null ? null : CompactGameCodec.decode(id, value));
+    }
+
+    @Override
+    public Map<String, Game> findAllById(List<String> ids) {
+        Map<String, Game> games = new LinkedHashMap<>();
+        for (String id : ids) {
+            byte[] value = find(id);
+            if (value != null) {
+                games.put(id, CompactGameCodec.decode(id, value));
+            }
+        }
+        return games;
+    }
+
+    // Expired games are gone for readers even before the sweep evicts them
+    private byte[] find(String id) {
+        UUID key = keyOf(id);
+        byte[] value = key == null ? null : entries.get(key);
+        return value == null || CompactGameCodec.expiresAt(value) <= System.currentTimeMillis() ? null : value;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        UUID key = keyOf(id);
+        byte[] value = key == null ? null : entries.remove(key);
+        if (value != null) {
+            released(key, value);
+        }
+    }
+
+    @Override
+    public void scheduleExpiry(String id, Instant deadline) {
+        UUID key = keyOf(id);
+        if (key == null) {
+            return;
+        }
+        long at = deadline.toEpochMilli();
+        entries.computeIfPresent(key, (k, value) -> {
+            long previous = CompactGameCodec.deadline(value);
+            if (previous != 0) {
+                deadlines.remove(new Deadline(previous, k));
+            }
+            deadlines.add(new Deadline(at, k));
+            return CompactGameCodec.withDeadline(value, at);
+        });
+    }
+
+    @Override
+    public void cancelExpiry(String id) {
+        UUID key = keyOf(id);
+        if (key == null) {
+            return;
+        }
+        entries.computeIfPresent(key, (k, value) -> {
+            long previous = CompactGameCodec.deadline(value);
+            if (previous == 0) {
+                return value;
+            }
+            deadlines.remove(new Deadline(previous, k));
+            return CompactGameCodec.withDeadline(value, 0);
+        });
+    }
+
+    @Override
+    public void cancelExpiry(Collection<String> ids) {
+        for (String id : ids) {
+            cancelExpiry(id);
+        }
+    }
+
+    @Override
+    public List<String> findExpired(Instant now, int limit) {
+        long nowMillis = now.toEpochMilli();
+        List<String> ids = new ArrayList<>();
+        for (Deadline deadline : deadlines) {
+            if (deadline.at() > nowMillis || ids.size() == limit) {
+                break;
+            }
+            ids.add(deadline.key().toString());
+        }
+        return ids;
+    }
+
+    // Removing the deadline is atomic, so exactly one sweep wins the claim for each game
+    @Override
+    public boolean claimExpiry(String id) {
+        UUID key = keyOf(id);
+        byte[] value = key == null ? null : entries.get(key);
+        long at = value == null ? 0 : CompactGameCodec.deadline(value);
+        return at != 0 && deadlines.remove(new Deadline(at, key));
+    }
+
+    // Game IDs are UUIDs, anything else cannot be stored here
+    private static UUID keyOf(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record Deadline(long at, UUID key) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline other) {
+            int byTime = Long.compare(at, other.at);
+            return byTime != 0 ? byTime : key.compareTo(other.key);
+        }
+    }
+}
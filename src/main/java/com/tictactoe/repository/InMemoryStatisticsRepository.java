@@ -0,0 +1,78 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.LeaderboardEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The same counters and league points as in Redis, kept in this JVM for the in-memory
+ * game store. A leaderboard page sorts the difficulty's players, which the statistics
+ * service caches for a short time.
+ */
+@Repository
+@ConditionalOnProperty(name = "game.store.type", havingValue = "memory")
+public class InMemoryStatisticsRepository implements StatisticsRepository {
+    private final Map<String, LongAdder> results = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> playerResults = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> leaderboards = new ConcurrentHashMap<>();
+
+    // Called once per game, when the store sees it turn from in progress to finished
+    void recordResult(Game game) {
+        String outcome = GameResults.outcomeOf(game);
+        String difficulty = game.getDifficultyLevel();
+        increment(results, difficulty + ":" + game.getHumanPlayer().getSymbol() + ":" + outcome, 1);
+
+        String playerName = game.getPlayerName();
+        if (playerName != null) {
+            increment(playerResults.computeIfAbsent(playerName, name -> new ConcurrentHashMap<>()),
+                    difficulty + ":" + outcome, 1);
+            // A loss still adds the player to the leaderboard with no points
+            increment(leaderboards.computeIfAbsent(difficulty, name -> new ConcurrentHashMap<>()),
+                    playerName, GameResults.pointsFor(outcome));
+        }
+    }
+
+    private static void increment(Map<String, LongAdder> counters, String key, long amount) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(amount);
+    }
+
+    @Override
+    public Map<String, Long> findResultCounts() {
+        return toCounts(results);
+    }
+
+    @Override
+    public Map<String, Long> findPlayerResultCounts(String playerName) {
+        return toCounts(playerResults.getOrDefault(playerName, Map.of()));
+    }
+
+    @Override
+    public List<LeaderboardEntry> findLeaderboard(String difficulty, int limit) {
+        List<Map.Entry<String, Long>> players = new ArrayList<>(
+                toCounts(leaderboards.getOrDefault(difficulty, Map.of())).entrySet());
+        // Ties are ordered by name descending, like a Redis reverse range
+        players.sort(Map.Entry.<String, Long>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey())
+                .reversed());
+
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+        for (Map.Entry<String, Long> player : players.subList(0, Math.min(limit, players.size()))) {
+            leaderboard.add(new LeaderboardEntry(leaderboard.size() + 1, player.getKey(), player.getValue()));
+        }
+        return leaderboard;
+    }
+
+    private static Map<String, Long> toCounts(Map<String, LongAdder> counters) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counters.forEach((key, counter) -> counts.put(key, counter.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,90 @@
+package com.tictactoe.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Matchmaking state shared by the nodes: a list per bucket of the tickets waiting for
+ * a player on any node, and the result of each ticket. A result is only ever set once,
+ * so whichever node claims a ticket first decides whether it was matched or cancelled.
+ */
+@Repository
+public class MatchmakingRepository {
+    private static final String QUEUE_KEY_PREFIX = "match-queue:";
+    private static final String RESULT_KEY_PREFIX = "match-result:";
+
+    // Taking the oldest waiting ticket and publishing ours when there is none is one atomic step,
+    // so two nodes publishing at the same moment cannot both end up waiting for a third player
+    private static final DefaultRedisScript<String> TAKE_OR_PUBLISH = new DefaultRedisScript<>(
+            "local other = redis.call('LPOP', KEYS[1]) "
+                    + "if other then return other end "
+                    + "redis.call('RPUSH', KEYS[1], ARGV[1]) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "return false",
+            String.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    public MatchmakingRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Takes the oldest ticket waiting in the bucket, or leaves the given ticket waiting there.
+     *
+     * @return the ID of the ticket taken, or null if the given ticket was published instead
+     */
+    public String takeOrPublish(String bucket, String ticketId, Duration maxWait) {
+        return stringRedisTemplate.execute(TAKE_OR_PUBLISH, List.of(QUEUE_KEY_PREFIX + bucket),
+                ticketId, String.valueOf(maxWait.toMillis()));
+    }
+
+    // Puts a ticket taken by takeOrPublish back at the front, when it could not be matched after all
+    public void returnWaiting(String bucket, String ticketId) {
+        stringRedisTemplate.opsForList().leftPush(QUEUE_KEY_PREFIX + bucket, ticketId);
+    }
+
+    public void removeWaiting(String bucket, String ticketId) {
+        stringRedisTemplate.opsForList().remove(QUEUE_KEY_PREFIX + bucket, 0, ticketId);
+    }
+
+    // Sets the result unless the ticket already has one
+    public boolean claimResult(String ticketId, String result, Duration ttl) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(RESULT_KEY_PREFIX + ticketId, result, ttl));
+    }
+
+    // The results of tickets matched on this node, in one pipelined batch, for players polling another node
+    public void saveResults(Map<String, String> results, Duration ttl) {
+        if (results.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, String> result : results.entrySet()) {
+                connection.stringCommands().set(bytes(RESULT_KEY_PREFIX + result.getKey()), bytes(result.getValue()),
+                        Expiration.from(ttl), RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    public Optional<String> findResult(String ticketId) {
+        return Optional.ofNullable(stringRedisTemplate.opsForValue().get(RESULT_KEY_PREFIX + ticketId));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,212 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import com.tictactoe.monitoring.RepositoryOperationEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking access to the games stored by {@link RedisGameRepository}, with the same
+ * keys, format and expiry, for the WebFlux stack. Commands go out on the shared
+ * Lettuce connection without holding a thread while Redis answers.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGameRepository {
+    private final ReactiveRedisTemplate<String, Game> reactiveRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final RedisStatisticsRepository statisticsRepository;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+
+    @Value("${game.finished-game-ttl-minutes}")
+    private long finishedGameTtlMinutes;
+
+    @Autowired
+    public ReactiveGameRepository(ReactiveRedisTemplate<String, Game> reactiveRedisTemplate,
+                                  ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                  RedisStatisticsRepository statisticsRepository,
+                                  ReactiveRedisMessageListenerContainer listenerContainer) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.statisticsRepository = statisticsRepository;
+        this.listenerContainer = listenerContainer;
+    }
+
+    // Emits false if the stored game had already ended and was left unchanged
+    public Mono<Boolean> save(Game game) {
+        return saveAll(List.of(game)).map(Set::isEmpty);
+    }
+
+    /**
+     * Writes and publishes every game on one connection; each game is serialized once
+     * for both. Emits the IDs of the games left unchanged because their stored copy had
+     * already ended, see {@link RedisGameRepository#SAVE_SCRIPT}.
+     */
+    public Mono<Set<String>> saveAll(Collection<Game> games) {
+        if (games.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        return Mono.defer(() -> {
+            RepositoryOperationEvent event = RepositoryOperationEvent.start("saveAll",
+                    RedisGameRepository.GAME_KEY_PREFIX + games.iterator().next().getId(), games.size());
+            AtomicLong written = new AtomicLong();
+            Set<String> alreadyOver = ConcurrentHashMap.newKeySet();
+            return reactiveRedisTemplate.execute(connection -> Flux.fromIterable(games).flatMap(game -> {
+                        ByteBuffer value = gameSerializer().write(game);
+                        written.addAndGet(value.remaining());
+                        Mono<Long> saved = connection.scriptingCommands()
+                                .<Long>eval(buffer(RedisGameRepository.SAVE_SCRIPT), ReturnType.INTEGER, 2,
+                                        key(game.getId()), buffer(RedisGameRepository.updateChannel(game.getId())),
+                                        value, buffer(String.valueOf(expirationOf(game).toMillis())),
+                                        buffer(String.valueOf(CompactGameSerializer.SCRIPT_FLAGS_POSITION)),
+                                        buffer(String.valueOf(CompactGameSerializer.SCRIPT_STATE_DIVISOR)))
+                                .next();
+                        return saved.flatMap(result -> {
+                            if (result == 0) {
+                                alreadyOver.add(game.getId());
+                                return Mono.empty();
+                            }
+                            return game.getGameState() != GameState.IN_PROGRESS
+                                    ? statisticsRepository.recordResult(connection, game)
+                                    : Mono.empty();
+                        });
+                    }))
+                    .then(Mono.fromSupplier(() -> (Set<String>) alreadyOver))
+                    .doFinally(signal -> {
+                        event.bytes = written.get();
+                        event.commit();
+                    });
+        });
+    }
+
+    // Finished games are archived, Redis only keeps them long enough for clients to see the result
+    private Duration expirationOf(Game game) {
+        return game.getGameState() == GameState.IN_PROGRESS
+                ? RedisGameRepository.GAME_EXPIRATION
+                : Duration.ofMinutes(finishedGameTtlMinutes);
+    }
+
+    public Mono<Game> findById(String id) {
+        return Mono.defer(() -> {
+            RepositoryOperationEvent event = RepositoryOperationEvent.start("findById",
+                    RedisGameRepository.GAME_KEY_PREFIX + id, 1);
+            return reactiveRedisTemplate.execute(connection -> connection.stringCommands().get(key(id)))
+                    .next()
+                    .doOnNext(value -> event.bytes = value.remaining())
+                    .map(value -> gameSerializer().read(value))
+                    .doFinally(signal -> event.commit());
+        });
+    }
+
+    // Fetches all games with a single MGET, missing games are left out of the result
+    public Mono<Map<String, Game>> findAllById(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(new LinkedHashMap<>());
+        }
+
+        List<ByteBuffer> keys = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            keys.add(key(id));
+        }
+
+        return Mono.defer(() -> {
+            RepositoryOperationEvent event = RepositoryOperationEvent.start("findAllById",
+                    RedisGameRepository.GAME_KEY_PREFIX + ids.get(0), ids.size());
+            return reactiveRedisTemplate.execute(connection -> connection.stringCommands().mGet(keys))
+                    .next()
+                    .map(values -> {
+                        Map<String, Game> games = new LinkedHashMap<>();
+                        long read = 0;
+                        for (int i = 0; i < ids.size(); i++) {
+                            // Missing keys come back as empty values
+                            ByteBuffer value = values.get(i);
+                            if (value != null && value.hasRemaining()) {
+                                read += value.remaining();
+                                games.put(ids.get(i), gameSerializer().read(value));
+                            }
+                        }
+                        event.bytes = read;
+                        return games;
+                    })
+                    .defaultIfEmpty(new LinkedHashMap<>())
+                    .doFinally(signal -> event.commit());
+        });
+    }
+
+    /**
+     * Subscribes to the updates of a game published by any node. The returned Mono
+     * completes once the subscription is in place, so a read made after it cannot
+     * miss a later update. The updates flow until the subscriber cancels.
+     */
+    public Mono<Flux<Game>> subscribeToUpdates(String id) {
+        return listenerContainer.receiveLater(List.of(ChannelTopic.of(RedisGameRepository.updateChannel(id))),
+                        RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.string()),
+                        gameSerializer())
+                .map(messages -> messages.map(ReactiveSubscription.Message::getMessage));
+    }
+
+    // Deadlines live in a sorted set scored by epoch millis, so due games are a range query
+    public Mono<Void> scheduleExpiry(String id, Instant deadline) {
+        return instrument("scheduleExpiry", 1, reactiveStringRedisTemplate.opsForZSet()
+                .add(RedisGameRepository.DEADLINES_KEY, id, deadline.toEpochMilli()));
+    }
+
+    // Removing the deadline is atomic, so exactly one caller wins the claim and ends the game
+    public Mono<Boolean> claimExpiry(String id) {
+        return Mono.defer(() -> {
+            RepositoryOperationEvent event = RepositoryOperationEvent.start("claimExpiry",
+                    RedisGameRepository.DEADLINES_KEY, 1);
+            return reactiveStringRedisTemplate.opsForZSet()
+                    .remove(RedisGameRepository.DEADLINES_KEY, id)
+                    .map(removed -> removed > 0)
+                    .doFinally(signal -> event.commit());
+        });
+    }
+
+    // Times a deadline update from subscription to completion
+    private Mono<Void> instrument(String operation, int keyCount, Mono<?> command) {
+        return Mono.defer(() -> {
+            RepositoryOperationEvent event = RepositoryOperationEvent.start(operation,
+                    RedisGameRepository.DEADLINES_KEY, keyCount);
+            return command.then().doFinally(signal -> event.commit());
+        });
+    }
+
+    private RedisSerializationContext.SerializationPair<Game> gameSerializer() {
+        return reactiveRedisTemplate.getSerializationContext().getValueSerializationPair();
+    }
+
+    private static ByteBuffer key(String id) {
+        return buffer(RedisGameRepository.GAME_KEY_PREFIX + id);
+    }
+
+    private static ByteBuffer buffer(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,235 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import com.tictactoe.monitoring.RepositoryOperationEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+@ConditionalOnProperty(name = "game.store.type", havingValue = "redis", matchIfMissing = true)
+public class RedisGameRepository implements GameRepository {
+    // Shared with the reactive repository, which reads and writes the same keys
+    static final String GAME_KEY_PREFIX = "game:";
+    static final String DEADLINES_KEY = "game-deadlines";
+    static final Duration GAME_EXPIRATION = Duration.ofHours(24);
+    private static final String UPDATE_CHANNEL_PREFIX = "game-updates:";
+
+    // Saves and publishes a game unless its stored copy has already ended, a finished game is final.
+    // KEYS: the game and its update channel. ARGV: the value, its TTL in milliseconds, and where
+    // the stored value's state is (see CompactGameSerializer).
+    static final String SAVE_SCRIPT =
+            "local current = redis.call('GET', KEYS[1]) "
+                    + "if current then "
+                    + "local flags = string.byte(current, string.byte(current, 1) + ARGV[3]) "
+                    + "if flags and math.floor(flags / ARGV[4]) ~= 0 then return 0 end "
+                    + "end "
+                    + "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) "
+                    + "redis.call('PUBLISH', KEYS[2], ARGV[1]) "
+                    + "return 1";
+
+    private final RedisTemplate<String, Game> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisStatisticsRepository statisticsRepository;
+
+    @Value("${game.finished-game-ttl-minutes}")
+    private long finishedGameTtlMinutes;
+
+    @Autowired
+    public RedisGameRepository(RedisTemplate<String, Game> redisTemplate, StringRedisTemplate stringRedisTemplate,
+                          RedisStatisticsRepository statisticsRepository) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.statisticsRepository = statisticsRepository;
+    }
+
+    @Override
+    public boolean save(Game game) {
+        return saveAll(List.of(game)).isEmpty();
+    }
+
+    /**
+     * Writes the games and publishes them to their update channels in one pipelined
+     * round trip. Each game is serialized once for both, and a script leaves a game
+     * alone whose stored copy has already ended. The result counters of finished
+     * games are updated in the same pipeline; they count each game once, however
+     * often it is saved in a finished state.
+     */
+    @Override
+    public Set<String> saveAll(Collection<Game> games) {
+        if (games.isEmpty()) {
+            return Set.of();
+        }
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("saveAll",
+                GAME_KEY_PREFIX + games.iterator().next().getId(), games.size());
+        long[] written = new long[1];
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Game game : games) {
+                byte[] value = encode(game);
+                written[0] += value.length;
+                connection.scriptingCommands().eval(bytes(SAVE_SCRIPT), ReturnType.INTEGER, 2,
+                        bytes(GAME_KEY_PREFIX + game.getId()), bytes(updateChannel(game.getId())), value,
+                        bytes(String.valueOf(expirationOf(game).toMillis())),
+                        bytes(String.valueOf(CompactGameSerializer.SCRIPT_FLAGS_POSITION)),
+                        bytes(String.valueOf(CompactGameSerializer.SCRIPT_STATE_DIVISOR)));
+                if (game.getGameState() != GameState.IN_PROGRESS) {
+                    statisticsRepository.recordResult(connection, game);
+                }
+            }
+            return null;
+        });
+        event.bytes = written[0];
+        event.commit();
+
+        // One result per save, followed by one per finished game's counter update
+        Set<String> alreadyOver = new HashSet<>();
+        int result = 0;
+        for (Game game : games) {
+            if (Long.valueOf(0).equals(results.get(result))) {
+                alreadyOver.add(game.getId());
+            }
+            result += game.getGameState() != GameState.IN_PROGRESS ? 2 : 1;
+        }
+        return alreadyOver;
+    }
+
+    // Finished games are archived, Redis only keeps them long enough for clients to see the result
+    private Duration expirationOf(Game game) {
+        return game.getGameState() == GameState.IN_PROGRESS
+                ? GAME_EXPIRATION
+                : Duration.ofMinutes(finishedGameTtlMinutes);
+    }
+
+    public static String updateChannel(String id) {
+        return UPDATE_CHANNEL_PREFIX + id;
+    }
+
+    // Games are stored and published in the same encoding
+    @Override
+    public byte[] encode(Game game) {
+        return gameSerializer().serialize(game);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Game> gameSerializer() {
+        return (RedisSerializer<Game>) redisTemplate.getValueSerializer();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Optional<Game> findById(String id) {
+        String key = GAME_KEY_PREFIX + id;
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("findById", key, 1);
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(bytes(key)));
+        event.bytes = value == null ? 0 : value.length;
+        event.commit();
+        return Optional.ofNullable(value == null ? null : gameSerializer().deserialize(value));
+    }
+
+    // Fetches all games with a single MGET, missing games are left out of the result
+    @Override
+    public Map<String, Game> findAllById(List<String> ids) {
+        Map<String, Game> games = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return games;
+        }
+
+        byte[][] keys = new byte[ids.size()][];
+        for (int i = 0; i < ids.size(); i++) {
+            keys[i] = bytes(GAME_KEY_PREFIX + ids.get(i));
+        }
+
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("findAllById",
+                GAME_KEY_PREFIX + ids.get(0), ids.size());
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(keys));
+        if (values == null) {
+            event.commit();
+            return games;
+        }
+
+        long read = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            byte[] value = values.get(i);
+            if (value != null) {
+                read += value.length;
+                games.put(ids.get(i), gameSerializer().deserialize(value));
+            }
+        }
+        event.bytes = read;
+        event.commit();
+        return games;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("deleteById", GAME_KEY_PREFIX + id, 1);
+        redisTemplate.delete(GAME_KEY_PREFIX + id);
+        event.commit();
+    }
+
+    // Deadlines live in a sorted set scored by epoch millis, so due games are a range query
+    @Override
+    public void scheduleExpiry(String id, Instant deadline) {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("scheduleExpiry", DEADLINES_KEY, 1);
+        stringRedisTemplate.opsForZSet().add(DEADLINES_KEY, id, deadline.toEpochMilli());
+        event.commit();
+    }
+
+    @Override
+    public void cancelExpiry(String id) {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("cancelExpiry", DEADLINES_KEY, 1);
+        stringRedisTemplate.opsForZSet().remove(DEADLINES_KEY, id);
+        event.commit();
+    }
+
+    @Override
+    public void cancelExpiry(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            RepositoryOperationEvent event = RepositoryOperationEvent.start("cancelExpiry", DEADLINES_KEY, ids.size());
+            stringRedisTemplate.opsForZSet().remove(DEADLINES_KEY, ids.toArray());
+            event.commit();
+        }
+    }
+
+    @Override
+    public List<String> findExpired(Instant now, int limit) {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("findExpired", DEADLINES_KEY, 1);
+        Set<String> ids = stringRedisTemplate.opsForZSet()
+                .rangeByScore(DEADLINES_KEY, 0, now.toEpochMilli(), 0, limit);
+        event.commit();
+        return ids == null ? List.of() : new ArrayList<>(ids);
+    }
+
+    // Removing the deadline is atomic, so exactly one node wins the claim for each game
+    @Override
+    public boolean claimExpiry(String id) {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start("claimExpiry", DEADLINES_KEY, 1);
+        Long removed = stringRedisTemplate.opsForZSet().remove(DEADLINES_KEY, id);
+        event.commit();
+        return removed != null && removed > 0;
+    }
+}
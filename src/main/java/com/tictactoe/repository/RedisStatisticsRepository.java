@@ -0,0 +1,144 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.LeaderboardEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aggregate results kept up to date as games finish. Counters live in hashes and
+ * league points (3 for a win, 1 for a draw) in one sorted set per difficulty, so
+ * recording a result is a fixed number of increments and a leaderboard page is a
+ * single range query. Each game is counted once however often it is saved finished.
+ */
+@Repository
+@ConditionalOnProperty(name = "game.store.type", havingValue = "redis", matchIfMissing = true)
+public class RedisStatisticsRepository implements StatisticsRepository {
+    private static final String RESULTS_KEY = "stats:results";
+    private static final String PLAYER_RESULTS_PREFIX = "stats:player:";
+    private static final String LEADERBOARD_PREFIX = "leaderboard:";
+    private static final String RECORDED_PREFIX = "stats:recorded:";
+    // Longer than any game is kept, so a repeated finished save always finds the marker
+    private static final long RECORDED_TTL_SECONDS = Duration.ofHours(25).toSeconds();
+
+    // Marks the game as counted and updates the counters in one atomic step.
+    // KEYS: the marker, the results hash, and for a named player their hash and the leaderboard.
+    // ARGV: the marker TTL, the results field, and for a named player their field and the points.
+    private static final String RECORD_SCRIPT =
+            "if not redis.call('SET', KEYS[1], '1', 'NX', 'EX', ARGV[1]) then return 0 end "
+                    + "redis.call('HINCRBY', KEYS[2], ARGV[2], 1) "
+                    + "if #KEYS > 2 then "
+                    + "redis.call('HINCRBY', KEYS[3], ARGV[3], 1) "
+                    + "redis.call('ZINCRBY', KEYS[4], ARGV[4], ARGV[5]) "
+                    + "end "
+                    + "return 1";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    public RedisStatisticsRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // Queues the counter updates for a finished game on a connection, normally inside the pipeline of its final save
+    void recordResult(RedisConnection connection, Game game) {
+        List<String> keysAndArgs = recordKeysAndArgs(game);
+        byte[][] encoded = new byte[keysAndArgs.size()][];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = bytes(keysAndArgs.get(i));
+        }
+        connection.scriptingCommands().eval(bytes(RECORD_SCRIPT), ReturnType.INTEGER,
+                keyCount(game), encoded);
+    }
+
+    // The same counter updates for a game saved through the reactive repository
+    Mono<Void> recordResult(ReactiveRedisConnection connection, Game game) {
+        ByteBuffer[] encoded = recordKeysAndArgs(game).stream()
+                .map(RedisStatisticsRepository::buffer)
+                .toArray(ByteBuffer[]::new);
+        return connection.scriptingCommands()
+                .eval(buffer(RECORD_SCRIPT), ReturnType.INTEGER, keyCount(game), encoded)
+                .then();
+    }
+
+    private static int keyCount(Game game) {
+        return game.getPlayerName() == null ? 2 : 4;
+    }
+
+    private static List<String> recordKeysAndArgs(Game game) {
+        String outcome = GameResults.outcomeOf(game);
+        String difficulty = game.getDifficultyLevel();
+        String playerName = game.getPlayerName();
+
+        List<String> keysAndArgs = new ArrayList<>(9);
+        keysAndArgs.add(RECORDED_PREFIX + game.getId());
+        keysAndArgs.add(RESULTS_KEY);
+        if (playerName != null) {
+            keysAndArgs.add(PLAYER_RESULTS_PREFIX + playerName);
+            keysAndArgs.add(LEADERBOARD_PREFIX + difficulty);
+        }
+        keysAndArgs.add(String.valueOf(RECORDED_TTL_SECONDS));
+        keysAndArgs.add(difficulty + ":" + game.getHumanPlayer().getSymbol() + ":" + outcome);
+        if (playerName != null) {
+            keysAndArgs.add(difficulty + ":" + outcome);
+            keysAndArgs.add(String.valueOf(GameResults.pointsFor(outcome)));
+            keysAndArgs.add(playerName);
+        }
+        return keysAndArgs;
+    }
+
+    @Override
+    public Map<String, Long> findResultCounts() {
+        return toCounts(stringRedisTemplate.<String, String>opsForHash().entries(RESULTS_KEY));
+    }
+
+    @Override
+    public Map<String, Long> findPlayerResultCounts(String playerName) {
+        return toCounts(stringRedisTemplate.<String, String>opsForHash().entries(PLAYER_RESULTS_PREFIX + playerName));
+    }
+
+    @Override
+    public List<LeaderboardEntry> findLeaderboard(String difficulty, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> entries = stringRedisTemplate.opsForZSet()
+                .reverseRangeWithScores(LEADERBOARD_PREFIX + difficulty, 0, limit - 1);
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+        if (entries == null) {
+            return leaderboard;
+        }
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+            long points = entry.getScore() == null ? 0 : entry.getScore().longValue();
+            leaderboard.add(new LeaderboardEntry(leaderboard.size() + 1, entry.getValue(), points));
+        }
+        return leaderboard;
+    }
+
+    private static Map<String, Long> toCounts(Map<String, String> entries) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        entries.forEach((field, value) -> counts.put(field, Long.parseLong(value)));
+        return counts;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer buffer(String value) {
+        return ByteBuffer.wrap(bytes(value));
+    }
+}
@@ -0,0 +1,22 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.LeaderboardEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate results of finished games. The game store records them as games finish,
+ * so the implementation follows game.store.type: Redis counts the results of every
+ * node, the in-memory store only those of this node.
+ */
+public interface StatisticsRepository {
+    // Counters keyed by "difficulty:symbol:outcome", from the human player's side
+    Map<String, Long> findResultCounts();
+
+    // Counters keyed by "difficulty:outcome"
+    Map<String, Long> findPlayerResultCounts(String playerName);
+
+    // Players with the most league points first
+    List<LeaderboardEntry> findLeaderboard(String difficulty, int limit);
+}
@@ -0,0 +1,76 @@
+package com.tictactoe.service;
+
+import com.tictactoe.service.ai.MoveAnalysis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+@Component
+public class AnalysisCache {
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+
+    private final Map<Long, CompletableFuture<List<MoveAnalysis>>> entries;
+
+    public AnalysisCache(@Value("${game.ai.analysis.cache-size}") int maxEntries) {
+        // Access-ordered map, so the least recently requested position is evicted first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<List<MoveAnalysis>>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached analysis for a position, running the analysis only if no
+     * result is cached or in progress. Concurrent requests for the same position
+     * wait for the single search in flight instead of starting their own.
+     *
+     * @param positionKey the position hash, including the side to move
+     * @param analysis    computes the analysis on a cache miss
+     * @return the analysis of the position
+     */
+    public List<MoveAnalysis> get(long positionKey, Supplier<List<MoveAnalysis>> analysis) {
+        CompletableFuture<List<MoveAnalysis>> future;
+        boolean miss = false;
+        synchronized (entries) {
+            future = entries.get(positionKey);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                entries.put(positionKey, future);
+                miss = true;
+            }
+        }
+
+        if (miss) {
+            logger.debug("Analysis cache miss for position {}", Long.toHexString(positionKey));
+            try {
+                future.complete(analysis.get());
+            } catch (RuntimeException e) {
+                // Do not cache failures, the next request retries the search
+                synchronized (entries) {
+                    entries.remove(positionKey, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.tictactoe.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "game.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class GameExpiryScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(GameExpiryScheduler.class);
+
+    private final GameService gameService;
+
+    @Autowired
+    public GameExpiryScheduler(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Scheduled(fixedDelayString = "${game.expiry.sweep-interval-ms}")
+    public void expireTimedOutGames() {
+        try {
+            gameService.expireTimedOutGames();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive, the next sweep retries
+            logger.error("Failed to expire timed-out games", e);
+        }
+    }
+}
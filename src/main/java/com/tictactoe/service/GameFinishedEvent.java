@@ -0,0 +1,25 @@
+package com.tictactoe.service;
+
+import com.tictactoe.model.Game;
+
+/**
+ * Published once when a game leaves {@code IN_PROGRESS}, whether by a win, a draw
+ * or the time limit. Listeners release any per-game work or state they hold.
+ */
+public class GameFinishedEvent {
+    private final Game game;
+    private final boolean timedOut;
+
+    public GameFinishedEvent(Game game, boolean timedOut) {
+        this.game = game;
+        this.timedOut = timedOut;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
@@ -0,0 +1,254 @@
+package com.tictactoe.service;
+
+import com.tictactoe.exception.InvalidMoveException;
+import com.tictactoe.model.Board;
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import com.tictactoe.model.Move;
+import com.tictactoe.model.PositionKey;
+import com.tictactoe.service.ai.AIPlayer;
+import com.tictactoe.service.ai.AIPlayerFactory;
+import com.tictactoe.service.ai.HardAIPlayer;
+import com.tictactoe.service.ai.MoveAnalysis;
+import com.tictactoe.service.ai.ProofNumberSolver;
+import com.tictactoe.service.ai.Solution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * The rules of play without any storage: creating games, applying human and AI
+ * moves, working out results and analyzing positions. Shared by the blocking and
+ * the reactive game services, which only differ in how they load and save games.
+ */
+@Component
+class GamePlay {
+    private static final Logger logger = LoggerFactory.getLogger(GamePlay.class);
+
+    private final AIPlayerFactory aiPlayerFactory;
+    private final HardAIPlayer analysisPlayer;
+    private final AnalysisCache analysisCache;
+    private final ProofNumberSolver solver;
+    private final SeatTokens seatTokens;
+
+    @Value("${game.ai.analysis.max-lines}")
+    private int maxAnalysisLines;
+
+    @Autowired
+    GamePlay(AIPlayerFactory aiPlayerFactory, HardAIPlayer analysisPlayer, AnalysisCache analysisCache,
+             ProofNumberSolver solver, SeatTokens seatTokens) {
+        this.aiPlayerFactory = aiPlayerFactory;
+        this.analysisPlayer = analysisPlayer;
+        this.analysisCache = analysisCache;
+        this.solver = solver;
+        this.seatTokens = seatTokens;
+    }
+
+    Game newGame(String symbol, String difficultyLevel, String playerName) {
+        if (!symbol.equals("X") && !symbol.equals("O")) {
+            throw new IllegalArgumentException("Symbol must be either X or O");
+        }
+
+        if (!aiPlayerFactory.isSupported(difficultyLevel)) {
+            throw new IllegalArgumentException("Unknown difficulty level: " + difficultyLevel);
+        }
+
+        return new Game(symbol, difficultyLevel, playerName);
+    }
+
+    // A game between two people, matchmaking decides who takes which seat
+    Game newVersusGame(String gameId) {
+        return new Game(gameId, "X", Game.VERSUS, null);
+    }
+
+    boolean isComputerToMove(Game game) {
+        return game.getGameState() == GameState.IN_PROGRESS && !game.getCurrentPlayer().isHuman();
+    }
+
+    // Validates and applies a human move without saving the game
+    void playHumanMove(Game game, Move move) {
+        playHumanMove(game, move, null);
+    }
+
+    // The same, where a move in a game between two people needs the token of the seat to move
+    void playHumanMove(Game game, Move move, String playerToken) {
+        // Check if game is already over
+        if (game.getGameState() != GameState.IN_PROGRESS) {
+            throw new InvalidMoveException("Game is already over");
+        }
+
+        if (game.isVersus()
+                && !seatTokens.verify(game.getId(), game.getCurrentPlayer().getSymbol(), playerToken)) {
+            throw new InvalidMoveException("Not your turn");
+        }
+
+        // Check for time limit
+        if (game.isTimeLimitExceeded()) {
+            game.setGameState(GameState.DRAW);
+            return;
+        }
+
+        // Validate move
+        if (!game.getBoard().isValidPosition(move.getRow(), move.getCol())) {
+            throw new InvalidMoveException("Invalid position: (" + move.getRow() + ", " + move.getCol() + ")");
+        }
+
+        if (!game.getBoard().getCell(move.getRow(), move.getCol()).isEmpty()) {
+            throw new InvalidMoveException("Cell already occupied at: (" + move.getRow() + ", " + move.getCol() + ")");
+        }
+
+        // Make the move
+        game.playMove(move.getRow(), move.getCol());
+
+        // Update game state
+        updateGameState(game, move.getRow(), move.getCol());
+
+        // If game is still in progress, switch player
+        if (game.getGameState() == GameState.IN_PROGRESS) {
+            game.switchPlayer();
+        }
+    }
+
+    // Chooses and applies the AI move without saving the game
+    void playAIMove(Game game) {
+        AIPlayer aiPlayer = aiPlayerFactory.createAIPlayer(game.getDifficultyLevel());
+        Move aiMove = aiPlayer.makeMove(game);
+
+        // Make the move
+        game.playMove(aiMove.getRow(), aiMove.getCol());
+
+        // Update game state
+        updateGameState(game, aiMove.getRow(), aiMove.getCol());
+
+        // If game is still in progress, switch player
+        if (game.getGameState() == GameState.IN_PROGRESS) {
+            game.switchPlayer();
+        }
+    }
+
+    void updateGameState(Game game, int row, int col) {
+        // Check for win
+        int[] winningSequence = game.getBoard().checkWinningSequence(row, col, game.getCurrentPlayer().getSymbol());
+        if (winningSequence != null) {
+            game.setWinningSequence(winningSequence);
+            if (game.getCurrentPlayer().getSymbol().equals("X")) {
+                game.setGameState(GameState.X_WON);
+            } else {
+                game.setGameState(GameState.O_WON);
+            }
+            logger.info("Player {} won the game", game.getCurrentPlayer().getSymbol());
+            return;
+        }
+
+        // Check for draw (full board)
+        if (game.getBoard().isFull()) {
+            game.setGameState(GameState.DRAW);
+            logger.info("Game ended in a draw (full board)");
+            return;
+        }
+
+        // Check for draw (no five-cell window left open for either player)
+        if (!game.getBoard().canStillWin("X") && !game.getBoard().canStillWin("O")) {
+            game.setGameState(GameState.DRAW);
+            logger.info("Game ended in a draw (no winning line left)");
+            return;
+        }
+
+        // Check for time limit
+        if (game.isTimeLimitExceeded()) {
+            game.setGameState(GameState.DRAW);
+            logger.info("Game ended in a draw (time limit exceeded)");
+        }
+    }
+
+    // Takes back the human's last move and the AI's reply to it, so the human is to move again
+    void takeBack(Game game) {
+        if (game.getGameState() != GameState.IN_PROGRESS) {
+            throw new InvalidMoveException("Game is already over");
+        }
+
+        if (game.isVersus()) {
+            throw new InvalidMoveException("Moves cannot be taken back in a game between two people");
+        }
+
+        int humanMoves = game.getHumanPlayer().getSymbol().equals("X")
+                ? (game.getMoveCount() + 1) / 2
+                : game.getMoveCount() / 2;
+        if (humanMoves == 0) {
+            throw new InvalidMoveException("No move to take back");
+        }
+
+        if (game.getCurrentPlayer().isHuman()) {
+            game.undoLastMove();
+        }
+        game.undoLastMove();
+    }
+
+    // A new game from an earlier position of this one, or from the current one if plies is null
+    Game branch(Game game, Integer plies) {
+        if (game.isVersus()) {
+            throw new IllegalArgumentException("Games between two people cannot be branched");
+        }
+
+        Game branch = game.branch(plies == null ? game.getMoveCount() : plies);
+        Board board = branch.getBoard();
+        int[] moves = branch.getMoves();
+
+        // Only the last move of a game can end it, so only a branch at the very end can be decided
+        boolean won = moves.length > 0 && board.isWinningMove(moves[moves.length - 1] / board.getSize(),
+                moves[moves.length - 1] % board.getSize(), moves.length % 2 == 1 ? "X" : "O");
+        if (won || board.isFull() || (!board.canStillWin("X") && !board.canStillWin("O"))) {
+            throw new IllegalArgumentException("The position after " + moves.length + " moves is already decided");
+        }
+        return branch;
+    }
+
+    List<MoveAnalysis> analyze(Game game, int lineCount) {
+        if (game.getGameState() != GameState.IN_PROGRESS) {
+            return List.of();
+        }
+
+        // Always analyze the maximum number of lines, so any line count is served from the same entry.
+        // Lines are cached for the canonical position and mapped back to this board's orientation.
+        PositionKey positionKey = PositionKey.of(game.getBoard(), game.getCurrentPlayer().getSymbol());
+        List<MoveAnalysis> canonical = analysisCache.get(positionKey.getKey(), () -> analysisPlayer
+                .analyze(game, maxAnalysisLines).stream()
+                .map(line -> line.map(positionKey::toCanonical))
+                .toList());
+
+        List<MoveAnalysis> analysis = canonical.stream()
+                .map(line -> line.map(positionKey::fromCanonical))
+                .toList();
+        int count = Math.max(1, Math.min(lineCount, analysis.size()));
+        return analysis.size() > count ? analysis.subList(0, count) : analysis;
+    }
+
+    Solution solve(Game game, long nodeLimit) {
+        if (game.getGameState() != GameState.IN_PROGRESS) {
+            throw new IllegalArgumentException("Game is already over");
+        }
+
+        String symbol = game.getCurrentPlayer().getSymbol();
+        String opponent = symbol.equals("X") ? "O" : "X";
+        return solver.solve(game.getBoard(), symbol, opponent, nodeLimit);
+    }
+
+    Instant deadlineOf(Game game) {
+        return game.getStartTime()
+                .plusMinutes(game.getTimeLimit())
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+    }
+
+    // The finished-game event for a game that just ended
+    GameFinishedEvent finishedEvent(Game game) {
+        boolean timedOut = game.getGameState() == GameState.DRAW && game.isTimeLimitExceeded();
+        return new GameFinishedEvent(game, timedOut);
+    }
+}
@@ -2,27 +2,72 @@ package com.tictactoe.service;
 
 
 import com.tictactoe.model.Game;
+import com.tictactoe.model.GameMove;
 import com.tictactoe.model.GameState;
 import com.tictactoe.model.Move;
+import com.tictactoe.service.ai.MoveAnalysis;
+import com.tictactoe.service.ai.Solution;
+
+import java.util.List;
+import java.util.Map;
 
 public interface GameService {
     /**
      * Creates a new game with the given player symbol and difficulty level.
      *
      * @param symbol          the symbol chosen by the human player (X or O)
-     * @param difficultyLevel the difficulty level (easy or hard)
+     * @param difficultyLevel the difficulty level (easy, hard or a ladder level)
      * @return the created game
      */
     Game createGame(String symbol, String difficultyLevel);
 
     /**
-     * Makes a move for the human player.
+     * Creates a new game for a named player, whose result counts towards the
+     * player's statistics and leaderboard points.
+     *
+     * @param symbol          the symbol chosen by the human player (X or O)
+     * @param difficultyLevel the difficulty level (easy, hard or a ladder level)
+     * @param playerName      the name the player is ranked under, or null for an anonymous game
+     * @return the created game
+     */
+    Game createGame(String symbol, String difficultyLevel, String playerName);
+
+    /**
+     * Creates a game between two people, with X to move.
+     *
+     * @param gameId the ID of the game, chosen by matchmaking so it can seat the players first
+     * @return the created game
+     */
+    Game createVersusGame(String gameId);
+
+    /**
+     * Deletes a game between two people that was created for a match that fell
+     * through, before either player learned its ID.
      *
      * @param gameId the ID of the game
-     * @param move   the move to make
+     */
+    void discardVersusGame(String gameId);
+
+    /**
+     * Makes a move for the human player.
+     *
+     * @param gameId      the ID of the game
+     * @param move        the move to make
+     * @param playerToken the seat token of the player to move in a game between two people,
+     *                    ignored in games against the AI
      * @return the updated game
      */
-    Game makeMove(String gameId, Move move);
+    Game makeMove(String gameId, Move move, String playerToken);
+
+    /**
+     * Makes a batch of human moves, each followed by the AI reply. All games are
+     * fetched in one round trip and the changed games saved in one pipelined batch.
+     * A rejected move does not affect the other moves in the batch.
+     *
+     * @param moves the moves to make, applied in order
+     * @return one outcome per move, in the same order
+     */
+    List<MoveOutcome> makeMoves(List<GameMove> moves);
 
     /**
      * Gets the current state of the game.
@@ -32,6 +77,14 @@ public interface GameService {
      */
     Game getGame(String gameId);
 
+    /**
+     * Gets the current state of several games in one round trip.
+     *
+     * @param gameIds the IDs of the games
+     * @return the games found, keyed by ID in request order
+     */
+    Map<String, Game> getGames(List<String> gameIds);
+
     /**
      * Updates the game state based on the last move made.
      *
@@ -56,4 +109,51 @@ public interface GameService {
      * @return true if the time limit has been exceeded, false otherwise
      */
     boolean checkTimeLimit(Game game);
+
+    /**
+     * Ends every game whose time limit has passed as a draw, without waiting for
+     * a client to make a move.
+     *
+     * @return the number of games expired by this call
+     */
+    int expireTimedOutGames();
+
+    /**
+     * Takes back the human player's last move together with the AI's reply.
+     *
+     * @param gameId the ID of the game
+     * @return the game, with the human player to move again
+     */
+    Game takeBack(String gameId);
+
+    /**
+     * Starts a new game from a position of an existing one, to try out another line.
+     * The branch has the same symbols and difficulty, is not ranked, and gets the AI
+     * move straight away if the AI is to move.
+     *
+     * @param gameId the ID of the game to branch from
+     * @param plies  the number of moves of that game to keep, or null for all of them
+     * @return the new game
+     */
+    Game branchGame(String gameId, Integer plies);
+
+    /**
+     * Analyzes the current position of the game for the player to move.
+     * Results are cached by position, so repeated requests do not search again.
+     *
+     * @param gameId    the ID of the game
+     * @param lineCount the number of candidate moves to return
+     * @return the best candidate moves with scores and principal variations
+     */
+    List<MoveAnalysis> analyzeGame(String gameId, int lineCount);
+
+    /**
+     * Tries to prove the current position won, lost or drawn for the player to move
+     * with proof-number search. Proved positions are cached, unproved ones are not.
+     *
+     * @param gameId    the ID of the game
+     * @param nodeLimit the node budget of the search
+     * @return the outcome, with the winning move and a proving line if one was found
+     */
+    Solution solveGame(String gameId, long nodeLimit);
 }
\ No newline at end of file
@@ -3,45 +3,60 @@ package com.tictactoe.service;
 import com.tictactoe.exception.GameNotFoundException;
 import com.tictactoe.exception.InvalidMoveException;
 import com.tictactoe.model.Game;
+import com.tictactoe.model.GameMove;
 import com.tictactoe.model.GameState;
 import com.tictactoe.model.Move;
+import com.tictactoe.monitoring.MoveEvent;
 import com.tictactoe.repository.GameRepository;
-import com.tictactoe.service.ai.AIPlayer;
-import com.tictactoe.service.ai.AIPlayerFactory;
+import com.tictactoe.service.ai.MoveAnalysis;
+import com.tictactoe.service.ai.Solution;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class GameServiceImpl implements GameService {
     private static final Logger logger = LoggerFactory.getLogger(GameServiceImpl.class);
 
     private final GameRepository gameRepository;
-    private final AIPlayerFactory aiPlayerFactory;
+    private final GamePlay gamePlay;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${game.expiry.batch-size}")
+    private int expiryBatchSize;
 
     @Autowired
-    public GameServiceImpl(GameRepository gameRepository, AIPlayerFactory aiPlayerFactory) {
+    public GameServiceImpl(GameRepository gameRepository, GamePlay gamePlay,
+                           ApplicationEventPublisher eventPublisher) {
         this.gameRepository = gameRepository;
-        this.aiPlayerFactory = aiPlayerFactory;
+        this.gamePlay = gamePlay;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Game createGame(String symbol, String difficultyLevel) {
-        logger.info("Creating new game with symbol: {} and difficulty: {}", symbol, difficultyLevel);
-
-        if (!symbol.equals("X") && !symbol.equals("O")) {
-            throw new IllegalArgumentException("Symbol must be either X or O");
-        }
+        return createGame(symbol, difficultyLevel, null);
+    }
 
-        if (!difficultyLevel.equals("easy") && !difficultyLevel.equals("hard")) {
-            throw new IllegalArgumentException("Difficulty level must be either easy or hard");
-        }
+    @Override
+    public Game createGame(String symbol, String difficultyLevel, String playerName) {
+        logger.info("Creating new game with symbol: {} and difficulty: {}", symbol, difficultyLevel);
 
-        Game game = new Game(symbol, difficultyLevel);
+        Game game = gamePlay.newGame(symbol, difficultyLevel, playerName);
         gameRepository.save(game);
+        gameRepository.scheduleExpiry(game.getId(), gamePlay.deadlineOf(game));
 
         // If computer goes first, make an AI move
         if (game.getCurrentPlayer().getSymbol().equals(game.getComputerPlayer().getSymbol())) {
@@ -52,52 +67,99 @@ public class GameServiceImpl implements GameService {
     }
 
     @Override
-    public Game makeMove(String gameId, Move move) {
-        logger.info("Making move for game: {} at position: ({}, {})", gameId, move.getRow(), move.getCol());
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+    public Game createVersusGame(String gameId) {
+        logger.info("Creating new game between two players: {}", gameId);
 
-        // Check if game is already over
-        if (game.getGameState() != GameState.IN_PROGRESS) {
-            throw new InvalidMoveException("Game is already over");
-        }
+        Game game = gamePlay.newVersusGame(gameId);
+        gameRepository.save(game);
+        gameRepository.scheduleExpiry(game.getId(), gamePlay.deadlineOf(game));
+        return game;
+    }
 
-        // Check for time limit
-        if (checkTimeLimit(game)) {
-            game.setGameState(GameState.DRAW);
-            gameRepository.save(game);
+    @Override
+    public void discardVersusGame(String gameId) {
+        logger.info("Discarding unused game between two players: {}", gameId);
+        gameRepository.cancelExpiry(gameId);
+        gameRepository.deleteById(gameId);
+    }
+
+    @Override
+    public Game makeMove(String gameId, Move move, String playerToken) {
+        logger.info("Making move for game: {} at position: ({}, {})", gameId, move.getRow(), move.getCol());
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        event.gameId = gameId;
+        event.row = move.getRow();
+        event.col = move.getCol();
+        try {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+            event.difficultyLevel = game.getDifficultyLevel();
+
+            gamePlay.playHumanMove(game, move, playerToken);
+
+            // If game is still in progress and it's computer's turn, save the human move before the AI thinks
+            if (gamePlay.isComputerToMove(game)) {
+                if (!gameRepository.save(game)) {
+                    throw new InvalidMoveException("Game is already over");
+                }
+                event.aiReplied = true;
+                makeAIMove(game);
+            } else {
+                saveGame(game);
+            }
+            event.gameState = game.getGameState().toString();
             return game;
+        } finally {
+            event.commit();
         }
+    }
 
-        // Validate move
-        if (!game.getBoard().isValidPosition(move.getRow(), move.getCol())) {
-            throw new InvalidMoveException("Invalid position: (" + move.getRow() + ", " + move.getCol() + ")");
-        }
+    @Override
+    public List<MoveOutcome> makeMoves(List<GameMove> moves) {
+        logger.info("Making batch of {} moves", moves.size());
+        List<String> gameIds = moves.stream().map(GameMove::getGameId).distinct().toList();
+        Map<String, Game> games = gameRepository.findAllById(gameIds);
+
+        List<MoveOutcome> outcomes = new ArrayList<>(moves.size());
+        Map<String, Game> changedGames = new LinkedHashMap<>();
+        for (GameMove move : moves) {
+            Game game = games.get(move.getGameId());
+            if (game == null) {
+                outcomes.add(MoveOutcome.failure(move.getGameId(), "Game not found",
+                        "Game not found with ID: " + move.getGameId()));
+                continue;
+            }
 
-        if (!game.getBoard().getCell(move.getRow(), move.getCol()).isEmpty()) {
-            throw new InvalidMoveException("Cell already occupied at: (" + move.getRow() + ", " + move.getCol() + ")");
+            try {
+                gamePlay.playHumanMove(game, new Move(move.getRow(), move.getCol()));
+                if (gamePlay.isComputerToMove(game)) {
+                    gamePlay.playAIMove(game);
+                }
+                changedGames.put(game.getId(), game);
+                outcomes.add(MoveOutcome.success(game));
+            } catch (InvalidMoveException e) {
+                outcomes.add(MoveOutcome.failure(move.getGameId(), "Invalid move", e.getMessage()));
+            }
         }
 
-        // Make the move
-        game.getBoard().makeMove(move.getRow(), move.getCol(), game.getCurrentPlayer().getSymbol());
-        game.setLastMoveTime(LocalDateTime.now());
-
-        // Update game state
-        updateGameState(game, move.getRow(), move.getCol());
-
-        // If game is still in progress, switch player and make AI move if it's computer's turn
-        if (game.getGameState() == GameState.IN_PROGRESS) {
-            game.switchPlayer();
-            gameRepository.save(game);
-
-            if (!game.getCurrentPlayer().isHuman()) {
-                return makeAIMove(game);
-            }
-        } else {
-            gameRepository.save(game);
+        Set<String> alreadyOver = saveGames(changedGames.values());
+        if (alreadyOver.isEmpty()) {
+            return outcomes;
+        }
+        List<MoveOutcome> checked = new ArrayList<>(outcomes.size());
+        for (MoveOutcome outcome : outcomes) {
+            checked.add(outcome.isSuccess() && alreadyOver.contains(outcome.getGameId())
+                    ? MoveOutcome.failure(outcome.getGameId(), "Invalid move", "Game is already over")
+                    : outcome);
         }
+        return checked;
+    }
 
-        return game;
+    @Override
+    public Map<String, Game> getGames(List<String> gameIds) {
+        logger.info("Retrieving {} games", gameIds.size());
+        return gameRepository.findAllById(gameIds);
     }
 
     @Override
@@ -109,31 +171,7 @@ public class GameServiceImpl implements GameService {
 
     @Override
     public void updateGameState(Game game, int row, int col) {
-        // Check for win
-        int[] winningSequence = game.getBoard().checkWinningSequence(row, col, game.getCurrentPlayer().getSymbol());
-        if (winningSequence != null) {
-            game.setWinningSequence(winningSequence);
-            if (game.getCurrentPlayer().getSymbol().equals("X")) {
-                game.setGameState(GameState.X_WON);
-            } else {
-                game.setGameState(GameState.O_WON);
-            }
-            logger.info("Player {} won the game", game.getCurrentPlayer().getSymbol());
-            return;
-        }
-
-        // Check for draw (full board)
-        if (game.getBoard().isFull()) {
-            game.setGameState(GameState.DRAW);
-            logger.info("Game ended in a draw (full board)");
-            return;
-        }
-
-        // Check for time limit
-        if (checkTimeLimit(game)) {
-            game.setGameState(GameState.DRAW);
-            logger.info("Game ended in a draw (time limit exceeded)");
-        }
+        gamePlay.updateGameState(game, row, col);
     }
 
     @Override
@@ -145,27 +183,112 @@ public class GameServiceImpl implements GameService {
             return game;
         }
 
-        AIPlayer aiPlayer = aiPlayerFactory.createAIPlayer(game.getDifficultyLevel());
-        Move aiMove = aiPlayer.makeMove(game);
+        gamePlay.playAIMove(game);
+        saveGame(game);
+        return game;
+    }
+
+    @Override
+    public boolean checkTimeLimit(Game game) {
+        return game.isTimeLimitExceeded();
+    }
 
-        // Make the move
-        game.getBoard().makeMove(aiMove.getRow(), aiMove.getCol(), game.getCurrentPlayer().getSymbol());
-        game.setLastMoveTime(LocalDateTime.now());
+    @Override
+    public int expireTimedOutGames() {
+        int expired = 0;
+        for (String gameId : gameRepository.findExpired(Instant.now(), expiryBatchSize)) {
+            // Another node may have claimed the game first
+            if (!gameRepository.claimExpiry(gameId)) {
+                continue;
+            }
 
-        // Update game state
-        updateGameState(game, aiMove.getRow(), aiMove.getCol());
+            Game game = gameRepository.findById(gameId).orElse(null);
+            if (game == null || game.getGameState() != GameState.IN_PROGRESS) {
+                continue;
+            }
 
-        // If game is still in progress, switch player
-        if (game.getGameState() == GameState.IN_PROGRESS) {
-            game.switchPlayer();
+            game.setGameState(GameState.DRAW);
+            if (!gameRepository.save(game)) {
+                continue;
+            }
+            eventPublisher.publishEvent(new GameFinishedEvent(game, true));
+            expired++;
         }
 
-        gameRepository.save(game);
+        if (expired > 0) {
+            logger.info("Expired {} games that reached their time limit", expired);
+        }
+        return expired;
+    }
+
+    // Only the caller that removes a game's deadline may end the game, so a move racing the
+    // expiry sweep cannot finish it a second time, and the store never saves over a finished game
+    private void saveGame(Game game) {
+        if (game.getGameState() != GameState.IN_PROGRESS && !gameRepository.claimExpiry(game.getId())) {
+            throw new InvalidMoveException("Game is already over");
+        }
+        if (!gameRepository.save(game)) {
+            throw new InvalidMoveException("Game is already over");
+        }
+        if (game.getGameState() != GameState.IN_PROGRESS) {
+            eventPublisher.publishEvent(gamePlay.finishedEvent(game));
+        }
+    }
+
+    // Saves the games that may be saved and returns the IDs of those another caller already ended
+    private Set<String> saveGames(Collection<Game> games) {
+        List<Game> claimed = new ArrayList<>(games.size());
+        Set<String> alreadyOver = new HashSet<>();
+        for (Game game : games) {
+            if (game.getGameState() != GameState.IN_PROGRESS && !gameRepository.claimExpiry(game.getId())) {
+                alreadyOver.add(game.getId());
+            } else {
+                claimed.add(game);
+            }
+        }
+
+        alreadyOver.addAll(gameRepository.saveAll(claimed));
+        for (Game game : claimed) {
+            if (game.getGameState() != GameState.IN_PROGRESS && !alreadyOver.contains(game.getId())) {
+                eventPublisher.publishEvent(gamePlay.finishedEvent(game));
+            }
+        }
+        return alreadyOver;
+    }
+
+    @Override
+    public Game takeBack(String gameId) {
+        logger.info("Taking back the last move of game: {}", gameId);
+        Game game = getGame(gameId);
+        gamePlay.takeBack(game);
+        if (!gameRepository.save(game)) {
+            throw new InvalidMoveException("Game is already over");
+        }
         return game;
     }
 
     @Override
-    public boolean checkTimeLimit(Game game) {
-        return game.isTimeLimitExceeded();
+    public Game branchGame(String gameId, Integer plies) {
+        logger.info("Branching game: {} after {} moves", gameId, plies);
+        Game branch = gamePlay.branch(getGame(gameId), plies);
+        gameRepository.save(branch);
+        gameRepository.scheduleExpiry(branch.getId(), gamePlay.deadlineOf(branch));
+
+        if (gamePlay.isComputerToMove(branch)) {
+            return makeAIMove(branch);
+        }
+        return branch;
+    }
+
+    @Override
+    public List<MoveAnalysis> analyzeGame(String gameId, int lineCount) {
+        logger.info("Analyzing game: {} for {} lines", gameId, lineCount);
+        return gamePlay.analyze(getGame(gameId), lineCount);
+    }
+
+    @Override
+    public Solution solveGame(String gameId, long nodeLimit) {
+        logger.info("Solving game: {} within {} nodes", gameId, nodeLimit);
+        return gamePlay.solve(getGame(gameId), nodeLimit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.tictactoe.service;
+
+import com.tictactoe.model.Game;
+
+/**
+ * The result of one move in a batch: the updated game, or the error that
+ * rejected the move.
+ */
+public class MoveOutcome {
+    private final String gameId;
+    private final Game game;
+    private final String error;
+    private final String message;
+
+    private MoveOutcome(String gameId, Game game, String error, String message) {
+        this.gameId = gameId;
+        this.game = game;
+        this.error = error;
+        this.message = message;
+    }
+
+    public static MoveOutcome success(Game game) {
+        return new MoveOutcome(game.getId(), game, null, null);
+    }
+
+    public static MoveOutcome failure(String gameId, String error, String message) {
+        return new MoveOutcome(gameId, null, error, message);
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return game != null;
+    }
+}
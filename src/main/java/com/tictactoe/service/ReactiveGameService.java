@@ -0,0 +1,110 @@
+package com.tictactoe.service;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameMove;
+import com.tictactoe.model.Move;
+import com.tictactoe.service.ai.MoveAnalysis;
+import com.tictactoe.service.ai.Solution;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The non-blocking counterpart of {@link GameService} for the WebFlux stack. Redis
+ * calls never hold a thread, and AI searches run on a bounded scheduler of their own.
+ */
+public interface ReactiveGameService {
+    /**
+     * Creates a new game, with the AI's first move if it plays first.
+     *
+     * @param symbol          the symbol chosen by the human player (X or O)
+     * @param difficultyLevel the difficulty level (easy, hard or a ladder level)
+     * @param playerName      the name the player is ranked under, or null for an anonymous game
+     * @return the created game
+     */
+    Mono<Game> createGame(String symbol, String difficultyLevel, String playerName);
+
+    /**
+     * Makes a move for the human player, followed by the AI reply.
+     *
+     * @param gameId      the ID of the game
+     * @param move        the move to make
+     * @param playerToken the seat token of the player to move in a game between two people,
+     *                    ignored in games against the AI
+     * @return the updated game
+     */
+    Mono<Game> makeMove(String gameId, Move move, String playerToken);
+
+    /**
+     * Makes a batch of human moves, each followed by the AI reply. All games are
+     * fetched in one round trip and the changed games saved together. A rejected
+     * move does not affect the other moves in the batch.
+     *
+     * @param moves the moves to make, applied in order
+     * @return one outcome per move, in the same order, once the games are saved
+     */
+    Flux<MoveOutcome> makeMoves(List<GameMove> moves);
+
+    /**
+     * Gets the current state of the game.
+     *
+     * @param gameId the ID of the game
+     * @return the game, or a {@link com.tictactoe.exception.GameNotFoundException} error
+     */
+    Mono<Game> getGame(String gameId);
+
+    /**
+     * Gets the current state of several games in one round trip.
+     *
+     * @param gameIds the IDs of the games
+     * @return the games found, keyed by ID in request order
+     */
+    Mono<Map<String, Game>> getGames(List<String> gameIds);
+
+    /**
+     * Streams the current state of a game and every update after it, until the game
+     * ends or the spectator timeout passes.
+     *
+     * @param gameId the ID of the game
+     * @return the states of the game
+     */
+    Flux<Game> watchGame(String gameId);
+
+    /**
+     * Takes back the human player's last move together with the AI's reply.
+     *
+     * @param gameId the ID of the game
+     * @return the game, with the human player to move again
+     */
+    Mono<Game> takeBack(String gameId);
+
+    /**
+     * Starts a new, unranked game from a position of an existing one, with the AI move
+     * if the AI is to move.
+     *
+     * @param gameId the ID of the game to branch from
+     * @param plies  the number of moves of that game to keep, or null for all of them
+     * @return the new game
+     */
+    Mono<Game> branchGame(String gameId, Integer plies);
+
+    /**
+     * Analyzes the current position of the game for the player to move.
+     *
+     * @param gameId    the ID of the game
+     * @param lineCount the number of candidate moves to return
+     * @return the best candidate moves with scores and principal variations
+     */
+    Mono<List<MoveAnalysis>> analyzeGame(String gameId, int lineCount);
+
+    /**
+     * Tries to prove the current position won, lost or drawn for the player to move.
+     *
+     * @param gameId    the ID of the game
+     * @param nodeLimit the node budget of the search
+     * @return the outcome, with the winning move and a proving line if one was found
+     */
+    Mono<Solution> solveGame(String gameId, long nodeLimit);
+}
@@ -0,0 +1,248 @@
+package com.tictactoe.service;
+
+import com.tictactoe.exception.GameNotFoundException;
+import com.tictactoe.exception.InvalidMoveException;
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameMove;
+import com.tictactoe.model.GameState;
+import com.tictactoe.model.Move;
+import com.tictactoe.monitoring.MoveEvent;
+import com.tictactoe.repository.ReactiveGameRepository;
+import com.tictactoe.service.ai.MoveAnalysis;
+import com.tictactoe.service.ai.Solution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGameServiceImpl implements ReactiveGameService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGameServiceImpl.class);
+
+    private final ReactiveGameRepository gameRepository;
+    private final GamePlay gamePlay;
+    private final Scheduler aiScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${game.spectator.timeout-ms}")
+    private long spectatorTimeoutMs;
+
+    @Autowired
+    public ReactiveGameServiceImpl(ReactiveGameRepository gameRepository, GamePlay gamePlay,
+                                   Scheduler aiScheduler, ApplicationEventPublisher eventPublisher) {
+        this.gameRepository = gameRepository;
+        this.gamePlay = gamePlay;
+        this.aiScheduler = aiScheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Mono<Game> createGame(String symbol, String difficultyLevel, String playerName) {
+        logger.info("Creating new game with symbol: {} and difficulty: {}", symbol, difficultyLevel);
+        return Mono.fromCallable(() -> gamePlay.newGame(symbol, difficultyLevel, playerName))
+                .flatMap(game -> gameRepository.save(game)
+                        .then(gameRepository.scheduleExpiry(game.getId(), gamePlay.deadlineOf(game)))
+                        // If computer goes first, make an AI move
+                        .then(gamePlay.isComputerToMove(game) ? makeAIMove(game) : Mono.just(game)));
+    }
+
+    @Override
+    public Mono<Game> makeMove(String gameId, Move move, String playerToken) {
+        logger.info("Making move for game: {} at position: ({}, {})", gameId, move.getRow(), move.getCol());
+        return Mono.defer(() -> {
+            MoveEvent event = new MoveEvent();
+            event.begin();
+            event.gameId = gameId;
+            event.row = move.getRow();
+            event.col = move.getCol();
+            return getGame(gameId)
+                    .flatMap(game -> {
+                        event.difficultyLevel = game.getDifficultyLevel();
+                        gamePlay.playHumanMove(game, move, playerToken);
+
+                        // Save the human move before the AI thinks, so spectators see it straight away
+                        if (gamePlay.isComputerToMove(game)) {
+                            event.aiReplied = true;
+                            return saveInProgress(game).then(makeAIMove(game));
+                        }
+                        return saveGame(game);
+                    })
+                    .doOnNext(game -> event.gameState = game.getGameState().toString())
+                    .doFinally(signal -> event.commit());
+        });
+    }
+
+    @Override
+    public Flux<MoveOutcome> makeMoves(List<GameMove> moves) {
+        logger.info("Making batch of {} moves", moves.size());
+        List<String> gameIds = moves.stream().map(GameMove::getGameId).distinct().toList();
+
+        // The whole batch runs on the AI scheduler, since any move in it may need a search
+        return gameRepository.findAllById(gameIds)
+                .publishOn(aiScheduler)
+                .flatMapMany(games -> {
+                    List<MoveOutcome> outcomes = new ArrayList<>(moves.size());
+                    Map<String, Game> changedGames = new LinkedHashMap<>();
+                    for (GameMove move : moves) {
+                        Game game = games.get(move.getGameId());
+                        if (game == null) {
+                            outcomes.add(MoveOutcome.failure(move.getGameId(), "Game not found",
+                                    "Game not found with ID: " + move.getGameId()));
+                            continue;
+                        }
+
+                        try {
+                            gamePlay.playHumanMove(game, new Move(move.getRow(), move.getCol()));
+                            if (gamePlay.isComputerToMove(game)) {
+                                gamePlay.playAIMove(game);
+                            }
+                            changedGames.put(game.getId(), game);
+                            outcomes.add(MoveOutcome.success(game));
+                        } catch (InvalidMoveException e) {
+                            outcomes.add(MoveOutcome.failure(move.getGameId(), "Invalid move", e.getMessage()));
+                        }
+                    }
+                    return saveGames(changedGames.values()).flatMapMany(alreadyOver -> Flux.fromIterable(outcomes)
+                            .map(outcome -> outcome.isSuccess() && alreadyOver.contains(outcome.getGameId())
+                                    ? MoveOutcome.failure(outcome.getGameId(), "Invalid move", "Game is already over")
+                                    : outcome));
+                });
+    }
+
+    @Override
+    public Mono<Game> getGame(String gameId) {
+        logger.info("Retrieving game with ID: {}", gameId);
+        return gameRepository.findById(gameId)
+                .switchIfEmpty(Mono.error(() -> new GameNotFoundException("Game not found with ID: " + gameId)));
+    }
+
+    @Override
+    public Mono<Map<String, Game>> getGames(List<String> gameIds) {
+        logger.info("Retrieving {} games", gameIds.size());
+        return gameRepository.findAllById(gameIds);
+    }
+
+    @Override
+    public Flux<Game> watchGame(String gameId) {
+        // Subscribe before reading the current state, so no move made in between is lost
+        return gameRepository.subscribeToUpdates(gameId)
+                .flatMapMany(updates -> getGame(gameId).flatMapMany(game -> Flux.concat(Mono.just(game), updates)))
+                .takeUntil(game -> game.getGameState() != GameState.IN_PROGRESS)
+                .take(Duration.ofMillis(spectatorTimeoutMs))
+                // A slow viewer skips to the latest state instead of queueing every move
+                .onBackpressureLatest();
+    }
+
+    @Override
+    public Mono<Game> takeBack(String gameId) {
+        logger.info("Taking back the last move of game: {}", gameId);
+        return getGame(gameId).flatMap(game -> {
+            gamePlay.takeBack(game);
+            return saveInProgress(game);
+        });
+    }
+
+    @Override
+    public Mono<Game> branchGame(String gameId, Integer plies) {
+        logger.info("Branching game: {} after {} moves", gameId, plies);
+        return getGame(gameId)
+                .map(game -> gamePlay.branch(game, plies))
+                .flatMap(branch -> gameRepository.save(branch)
+                        .then(gameRepository.scheduleExpiry(branch.getId(), gamePlay.deadlineOf(branch)))
+                        .then(gamePlay.isComputerToMove(branch) ? makeAIMove(branch) : Mono.just(branch)));
+    }
+
+    @Override
+    public Mono<List<MoveAnalysis>> analyzeGame(String gameId, int lineCount) {
+        logger.info("Analyzing game: {} for {} lines", gameId, lineCount);
+        return getGame(gameId)
+                .publishOn(aiScheduler)
+                .map(game -> gamePlay.analyze(game, lineCount));
+    }
+
+    @Override
+    public Mono<Solution> solveGame(String gameId, long nodeLimit) {
+        logger.info("Solving game: {} within {} nodes", gameId, nodeLimit);
+        return getGame(gameId)
+                .publishOn(aiScheduler)
+                .map(game -> gamePlay.solve(game, nodeLimit));
+    }
+
+    private Mono<Game> makeAIMove(Game game) {
+        logger.info("Making AI move for game: {} with difficulty: {}", game.getId(), game.getDifficultyLevel());
+        return Mono.fromCallable(() -> {
+                    gamePlay.playAIMove(game);
+                    return game;
+                })
+                .subscribeOn(aiScheduler)
+                .flatMap(this::saveGame);
+    }
+
+    // Only the caller that removes a game's deadline may end the game, so a move racing the
+    // expiry sweep cannot finish it a second time
+    private Mono<Game> saveGame(Game game) {
+        return saveGames(List.of(game)).flatMap(alreadyOver -> alreadyOver.isEmpty()
+                ? Mono.just(game)
+                : Mono.error(new InvalidMoveException("Game is already over")));
+    }
+
+    // A game that is still going may be saved without a claim, unless the expiry sweep ended it meanwhile
+    private Mono<Game> saveInProgress(Game game) {
+        return gameRepository.save(game).flatMap(saved -> saved
+                ? Mono.just(game)
+                : Mono.error(new InvalidMoveException("Game is already over")));
+    }
+
+    // Saves the games that may be saved and emits the IDs of those another caller already ended
+    private Mono<Set<String>> saveGames(Collection<Game> games) {
+        Set<String> alreadyOver = ConcurrentHashMap.newKeySet();
+        return Flux.fromIterable(games)
+                .filterWhen(game -> game.getGameState() == GameState.IN_PROGRESS
+                        ? Mono.just(true)
+                        : gameRepository.claimExpiry(game.getId()).doOnNext(claimed -> {
+                            if (!claimed) {
+                                alreadyOver.add(game.getId());
+                            }
+                        }))
+                .collectList()
+                .flatMap(claimed -> gameRepository.saveAll(claimed)
+                        .flatMap(unchanged -> {
+                            alreadyOver.addAll(unchanged);
+                            return publishFinished(claimed.stream()
+                                    .filter(game -> game.getGameState() != GameState.IN_PROGRESS
+                                            && !unchanged.contains(game.getId()))
+                                    .toList());
+                        }))
+                .thenReturn(alreadyOver);
+    }
+
+    // Listeners such as the archive write files, so they run off the event loop
+    private Mono<Void> publishFinished(List<Game> finished) {
+        if (finished.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> {
+                    for (Game game : finished) {
+                        eventPublisher.publishEvent(gamePlay.finishedEvent(game));
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
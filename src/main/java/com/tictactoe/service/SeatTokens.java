@@ -0,0 +1,59 @@
+package com.tictactoe.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Issues and checks the tokens that let a player move for one seat of a game between
+ * two people. A token is an HMAC of the game ID and the seat's symbol, so any node
+ * with the same secret can check it without storing anything.
+ */
+@Component
+public class SeatTokens {
+    private static final Logger logger = LoggerFactory.getLogger(SeatTokens.class);
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    @Autowired
+    public SeatTokens(@Value("${game.matchmaking.token-secret}") String secret) {
+        byte[] secretBytes;
+        if (secret.isEmpty()) {
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+            logger.info("No seat token secret configured, tokens issued by this node are only accepted here");
+        } else {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    public String issue(String gameId, String symbol) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal((gameId + ":" + symbol).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    // Compared in constant time, so a token cannot be guessed byte by byte
+    public boolean verify(String gameId, String symbol, String token) {
+        return token != null && MessageDigest.isEqual(
+                issue(gameId, symbol).getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+}
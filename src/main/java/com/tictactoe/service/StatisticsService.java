@@ -0,0 +1,91 @@
+package com.tictactoe.service;
+
+import com.tictactoe.model.LeaderboardEntry;
+import com.tictactoe.repository.StatisticsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class StatisticsService {
+    private final StatisticsRepository statisticsRepository;
+    private final Map<String, CachedLeaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    @Value("${game.stats.leaderboard-size}")
+    private int leaderboardSize;
+
+    @Value("${game.stats.leaderboard-cache-ms}")
+    private long leaderboardCacheMs;
+
+    @Autowired
+    public StatisticsService(StatisticsRepository statisticsRepository) {
+        this.statisticsRepository = statisticsRepository;
+    }
+
+    /**
+     * Gets the win, loss and draw counts of all games, grouped by difficulty level
+     * and the human player's symbol.
+     *
+     * @return the counts as difficulty -> symbol -> outcome -> count
+     */
+    public Map<String, Map<String, Map<String, Long>>> getResultCounts() {
+        Map<String, Map<String, Map<String, Long>>> results = new LinkedHashMap<>();
+        statisticsRepository.findResultCounts().forEach((field, count) -> {
+            String[] parts = field.split(":");
+            results.computeIfAbsent(parts[0], difficulty -> new LinkedHashMap<>())
+                    .computeIfAbsent(parts[1], symbol -> new LinkedHashMap<>())
+                    .put(parts[2], count);
+        });
+        return results;
+    }
+
+    /**
+     * Gets the win, loss and draw counts of one player.
+     *
+     * @param playerName the name the player is ranked under
+     * @return the counts as difficulty -> outcome -> count
+     */
+    public Map<String, Map<String, Long>> getPlayerResultCounts(String playerName) {
+        Map<String, Map<String, Long>> results = new LinkedHashMap<>();
+        statisticsRepository.findPlayerResultCounts(playerName).forEach((field, count) -> {
+            String[] parts = field.split(":");
+            results.computeIfAbsent(parts[0], difficulty -> new LinkedHashMap<>()).put(parts[1], count);
+        });
+        return results;
+    }
+
+    /**
+     * Gets the players with the most league points for a difficulty level. The full leaderboard page
+     * is cached locally for a short time, so any limit is served from one entry.
+     *
+     * @param difficultyLevel the difficulty level
+     * @param limit           the number of players to return
+     * @return the players in rank order
+     */
+    public List<LeaderboardEntry> getLeaderboard(String difficultyLevel, int limit) {
+        long now = System.currentTimeMillis();
+        CachedLeaderboard cached = leaderboards.get(difficultyLevel);
+        if (cached == null || now - cached.loadedAt > leaderboardCacheMs) {
+            cached = new CachedLeaderboard(now, statisticsRepository.findLeaderboard(difficultyLevel, leaderboardSize));
+            leaderboards.put(difficultyLevel, cached);
+        }
+
+        List<LeaderboardEntry> entries = cached.entries;
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    private static final class CachedLeaderboard {
+        private final long loadedAt;
+        private final List<LeaderboardEntry> entries;
+
+        private CachedLeaderboard(long loadedAt, List<LeaderboardEntry> entries) {
+            this.loadedAt = loadedAt;
+            this.entries = entries;
+        }
+    }
+}
@@ -11,4 +11,17 @@ public interface AIPlayer {
      * @return the move made
      */
     Move makeMove(Game game);
-}
\ No newline at end of file
+
+    /**
+     * Makes a move for the AI player within the given search limits.
+     * Players that do not search ignore the limits and record no statistics.
+     *
+     * @param game       the game
+     * @param limits     the depth, time and node budget for the move
+     * @param statistics receives the search statistics of the move
+     * @return the move made
+     */
+    default Move makeMove(Game game, SearchLimits limits, SearchStatistics statistics) {
+        return makeMove(game);
+    }
+}
@@ -7,18 +7,27 @@ import org.springframework.stereotype.Component;
 public class AIPlayerFactory {
     private final EasyAIPlayer easyAIPlayer;
     private final HardAIPlayer hardAIPlayer;
+    private final DifficultyLadder difficultyLadder;
 
     @Autowired
-    public AIPlayerFactory(EasyAIPlayer easyAIPlayer, HardAIPlayer hardAIPlayer) {
+    public AIPlayerFactory(EasyAIPlayer easyAIPlayer, HardAIPlayer hardAIPlayer, DifficultyLadder difficultyLadder) {
         this.easyAIPlayer = easyAIPlayer;
         this.hardAIPlayer = hardAIPlayer;
+        this.difficultyLadder = difficultyLadder;
     }
 
     public AIPlayer createAIPlayer(String difficultyLevel) {
         if ("hard".equalsIgnoreCase(difficultyLevel)) {
             return hardAIPlayer;
+        } else if (difficultyLadder.contains(difficultyLevel)) {
+            return difficultyLadder.get(difficultyLevel);
         } else {
             return easyAIPlayer;
         }
     }
-}
\ No newline at end of file
+
+    public boolean isSupported(String difficultyLevel) {
+        return "easy".equals(difficultyLevel) || "hard".equals(difficultyLevel)
+                || difficultyLadder.contains(difficultyLevel);
+    }
+}
@@ -0,0 +1,89 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.repository.BestMoveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Best moves of positions searched anywhere in the fleet. A bounded local map
+ * sits in front of Redis, so popular positions are answered without a round trip
+ * and positions searched on another node without a search. Only results of
+ * searches that reached the minimum depth are stored. Without Redis the local map
+ * is all there is.
+ */
+@Component
+public class BestMoveCache {
+    private static final Logger logger = LoggerFactory.getLogger(BestMoveCache.class);
+
+    private final BestMoveRepository bestMoveRepository;
+    private final Map<Long, MoveAnalysis> localEntries;
+    private final int minDepth;
+    private final boolean shared;
+
+    @Autowired
+    public BestMoveCache(BestMoveRepository bestMoveRepository,
+                         @Value("${game.ai.best-move-cache.local-size}") int maxLocalEntries,
+                         @Value("${game.ai.best-move-cache.min-depth}") int minDepth,
+                         @Value("${game.ai.best-move-cache.shared}") boolean shared) {
+        this.bestMoveRepository = bestMoveRepository;
+        this.minDepth = minDepth;
+        this.shared = shared;
+        // Access-ordered map, so the least recently used position is evicted first
+        this.localEntries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MoveAnalysis> eldest) {
+                return size() > maxLocalEntries;
+            }
+        };
+    }
+
+    public MoveAnalysis find(long positionKey) {
+        synchronized (localEntries) {
+            MoveAnalysis local = localEntries.get(positionKey);
+            if (local != null) {
+                return local;
+            }
+        }
+        if (!shared) {
+            return null;
+        }
+
+        MoveAnalysis shared;
+        try {
+            shared = bestMoveRepository.findByPosition(positionKey).orElse(null);
+        } catch (RuntimeException e) {
+            // The cache is only a shortcut, search instead of failing the move
+            logger.warn("Failed to read best move for position {}", Long.toHexString(positionKey), e);
+            return null;
+        }
+        if (shared != null) {
+            synchronized (localEntries) {
+                localEntries.put(positionKey, shared);
+            }
+        }
+        return shared;
+    }
+
+    public void store(long positionKey, MoveAnalysis analysis) {
+        if (analysis.getDepth() < minDepth) {
+            return;
+        }
+        synchronized (localEntries) {
+            localEntries.put(positionKey, analysis);
+        }
+        if (!shared) {
+            return;
+        }
+        try {
+            bestMoveRepository.save(positionKey, analysis);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to share best move for position {}", Long.toHexString(positionKey), e);
+        }
+    }
+}
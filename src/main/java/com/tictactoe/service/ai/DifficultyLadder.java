@@ -0,0 +1,40 @@
+package com.tictactoe.service.ai;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The node-budgeted difficulty levels, read from game.ai.ladder.<level>.* in ladder order
+@Component
+public class DifficultyLadder {
+    private final Map<String, LadderAIPlayer> levels = new LinkedHashMap<>();
+
+    @Autowired
+    public DifficultyLadder(HardAIPlayer hardAIPlayer, Environment environment,
+                            @Value("${game.ai.ladder.levels}") List<String> levelNames) {
+        for (String name : levelNames) {
+            String prefix = "game.ai.ladder." + name + ".";
+            levels.put(name, new LadderAIPlayer(hardAIPlayer, name,
+                    environment.getRequiredProperty(prefix + "max-depth", Integer.class),
+                    environment.getRequiredProperty(prefix + "node-limit", Long.class),
+                    environment.getRequiredProperty(prefix + "noise", Integer.class)));
+        }
+    }
+
+    public LadderAIPlayer get(String level) {
+        return levels.get(level);
+    }
+
+    public boolean contains(String level) {
+        return levels.containsKey(level);
+    }
+
+    public List<String> getLevelNames() {
+        return List.copyOf(levels.keySet());
+    }
+}
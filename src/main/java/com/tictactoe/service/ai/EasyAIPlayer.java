@@ -7,39 +7,35 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class EasyAIPlayer implements AIPlayer {
     private static final Logger logger = LoggerFactory.getLogger(EasyAIPlayer.class);
-    private final Random random = new Random();
 
     @Override
     public Move makeMove(Game game) {
         logger.debug("Easy AI is making a move");
         Board board = game.getBoard();
-        List<Move> availableMoves = new ArrayList<>();
+        int size = board.getSize();
+        int emptyCells = size * size - board.getStoneCount();
 
-        // Find all available moves
-        for (int row = 0; row < board.getSize(); row++) {
-            for (int col = 0; col < board.getSize(); col++) {
-                if (board.getCell(row, col).isEmpty()) {
-                    availableMoves.add(new Move(row, col));
-                }
-            }
+        // This should never happen if the board is not full
+        if (emptyCells == 0) {
+            logger.warn("No available moves for Easy AI");
+            return null;
         }
 
-        // Choose a random move
-        if (!availableMoves.isEmpty()) {
-            Move randomMove = availableMoves.get(random.nextInt(availableMoves.size()));
-            logger.debug("Easy AI chose move: ({}, {})", randomMove.getRow(), randomMove.getCol());
-            return randomMove;
+        // The board counts its stones, so pick the n-th empty cell instead of collecting them all
+        int remaining = ThreadLocalRandom.current().nextInt(emptyCells);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (board.getCell(row, col).isEmpty() && remaining-- == 0) {
+                    logger.debug("Easy AI chose move: ({}, {})", row, col);
+                    return new Move(row, col);
+                }
+            }
         }
-
-        // This should never happen if the board is not full
-        logger.warn("No available moves for Easy AI");
         return null;
     }
-}
\ No newline at end of file
+}
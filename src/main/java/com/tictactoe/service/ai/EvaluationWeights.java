@@ -0,0 +1,115 @@
+package com.tictactoe.service.ai;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Weights of the open five-cell windows in the static evaluation, indexed by the
+ * number of stones in the window. The side to move and the waiting side are
+ * weighted separately, since an open four is decisive only for the side to move.
+ */
+public class EvaluationWeights {
+    public static final int PATTERNS = PatternCounter.WINDOW;
+
+    // Keeps every evaluation well below HardAIPlayer's win score
+    public static final int MAX_WEIGHT = 100_000;
+
+    private static final String TO_MOVE_KEY = "to-move";
+    private static final String WAITING_KEY = "waiting";
+
+    private final int[] toMove;
+    private final int[] waiting;
+
+    public EvaluationWeights(int[] toMove, int[] waiting) {
+        this.toMove = validate(toMove);
+        this.waiting = validate(waiting);
+    }
+
+    /**
+     * The original fixed scale: 10^k for a window holding k stones, for both sides.
+     */
+    public static EvaluationWeights defaults() {
+        int[] weights = {1, 10, 100, 1000, 10000};
+        return new EvaluationWeights(weights, weights);
+    }
+
+    public static EvaluationWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return new EvaluationWeights(parse(properties, TO_MOVE_KEY), parse(properties, WAITING_KEY));
+    }
+
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(TO_MOVE_KEY, format(toMove));
+        properties.setProperty(WAITING_KEY, format(waiting));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Evaluation weights by stones per open window (0-4)");
+        }
+    }
+
+    public int[] getToMove() {
+        return toMove.clone();
+    }
+
+    public int[] getWaiting() {
+        return waiting.clone();
+    }
+
+    /**
+     * Scores a position from the point of view of the side to move.
+     *
+     * @param toMoveCounts  open windows of the side to move, by stone count
+     * @param waitingCounts open windows of the other side, by stone count
+     * @return the evaluation
+     */
+    public int evaluate(int[] toMoveCounts, int[] waitingCounts) {
+        int score = 0;
+        for (int k = 0; k < PATTERNS; k++) {
+            score += toMove[k] * toMoveCounts[k] - waiting[k] * waitingCounts[k];
+        }
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return TO_MOVE_KEY + "=" + format(toMove) + " " + WAITING_KEY + "=" + format(waiting);
+    }
+
+    private static int[] validate(int[] weights) {
+        if (weights.length != PATTERNS) {
+            throw new IllegalArgumentException("Expected " + PATTERNS + " weights but got " + weights.length);
+        }
+        for (int weight : weights) {
+            if (weight < 0 || weight > MAX_WEIGHT) {
+                throw new IllegalArgumentException("Weight out of range [0, " + MAX_WEIGHT + "]: " + weight);
+            }
+        }
+        return weights.clone();
+    }
+
+    private static int[] parse(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing evaluation weights: " + key);
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    private static String format(int[] weights) {
+        return Arrays.stream(weights)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+}
@@ -3,17 +3,25 @@ package com.tictactoe.service.ai;
 import com.tictactoe.model.Board;
 import com.tictactoe.model.Game;
 import com.tictactoe.model.Move;
+import com.tictactoe.model.PositionKey;
+import com.tictactoe.monitoring.SearchIterationEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 @Component
 public class HardAIPlayer implements AIPlayer {
     private static final Logger logger = LoggerFactory.getLogger(HardAIPlayer.class);
+    // Far above any evaluation, so a forced win or loss always dominates positional scores
+    private static final int WIN_SCORE = 1_000_000_000;
+    private static final int MAX_PLY = 64;
 
     @Value("${game.ai.hard.max-depth}")
     private int maxDepth;
@@ -21,248 +29,456 @@ public class HardAIPlayer implements AIPlayer {
     @Value("${game.ai.hard.time-limit-ms}")
     private long timeLimit;
 
-    private String aiSymbol;
-    private String humanSymbol;
-    private long startTime;
-    private Move bestMove;
+    @Value("${game.ai.solver.enabled}")
+    private boolean solverEnabled;
+
+    @Value("${game.ai.solver.max-candidates}")
+    private int solverMaxCandidates;
+
+    @Value("${game.ai.solver.node-limit}")
+    private long solverNodeLimit;
+
+    private final EvaluationWeights evaluationWeights;
+    private final SelectiveSearch selectiveSearch;
+    private final BestMoveCache bestMoveCache;
+    private final ProofNumberSolver solver;
+
+    @Autowired
+    public HardAIPlayer(EvaluationWeights evaluationWeights, SelectiveSearch selectiveSearch,
+                        BestMoveCache bestMoveCache, ProofNumberSolver solver) {
+        this.evaluationWeights = evaluationWeights;
+        this.selectiveSearch = selectiveSearch;
+        this.bestMoveCache = bestMoveCache;
+        this.solver = solver;
+    }
 
     @Override
     public Move makeMove(Game game) {
+        // Results are stored for the canonical position, so all 8 symmetric positions share them
+        PositionKey positionKey = PositionKey.of(game.getBoard(), game.getCurrentPlayer().getSymbol());
+        MoveAnalysis cached = bestMoveCache.find(positionKey.getKey());
+        if (cached != null) {
+            logger.debug("Hard AI reused the depth {} move for position {}", cached.getDepth(),
+                    Long.toHexString(positionKey.getKey()));
+            return positionKey.fromCanonical(cached.getMove());
+        }
+
+        Move forcedWin = findForcedWin(game);
+        if (forcedWin != null) {
+            return forcedWin;
+        }
+
+        MoveAnalysis best = searchBestMove(game, defaultLimits(), new SearchStatistics());
+        bestMoveCache.store(positionKey.getKey(), best.map(positionKey::toCanonical));
+        return best.getMove();
+    }
+
+    @Override
+    public Move makeMove(Game game, SearchLimits limits, SearchStatistics statistics) {
+        // Only the default limits share results, explicitly limited searches must really search
+        return searchBestMove(game, limits, statistics).getMove();
+    }
+
+    /**
+     * Tries the proof-number solver first in tactical positions, where it proves long
+     * forcing wins with far fewer nodes than alpha-beta: when a four can be made or must
+     * be blocked, or when only a few candidate moves are left.
+     */
+    private Move findForcedWin(Game game) {
+        Board board = game.getBoard();
+        if (!solverEnabled || isEmptyBoard(board)) {
+            return null;
+        }
+
+        String symbol = game.getCurrentPlayer().getSymbol();
+        String opponent = opponentOf(game, symbol);
+        List<Move> candidates = MoveGenerator.candidates(board);
+        int[] threats = MoveGenerator.orderByThreat(board, candidates, symbol, opponent);
+        if (candidates.size() > solverMaxCandidates && threats[0] < MoveGenerator.MAKES_FOUR) {
+            return null;
+        }
+
+        Move win = solver.findForcedWin(board, symbol, opponent, solverNodeLimit);
+        if (win != null) {
+            logger.debug("Hard AI plays the proved win at ({}, {})", win.getRow(), win.getCol());
+        }
+        return win;
+    }
+
+    private MoveAnalysis searchBestMove(Game game, SearchLimits limits, SearchStatistics statistics) {
         logger.debug("Hard AI is making a move using minimax with alpha-beta pruning");
-        aiSymbol = game.getComputerPlayer().getSymbol();
-        humanSymbol = game.getHumanPlayer().getSymbol();
-        startTime = System.currentTimeMillis();
-        bestMove = null;
         Board board = game.getBoard();
 
         // For the first move on an empty 20x20 board, play near the center for efficiency
         if (isEmptyBoard(board)) {
-            return new Move(board.getSize() / 2, board.getSize() / 2);
+            Move center = new Move(board.getSize() / 2, board.getSize() / 2);
+            return new MoveAnalysis(center, 0, 0, List.of(center));
         }
 
-        // Use iterative deepening to find the best move within the time limit
-        for (int depth = 1; depth <= maxDepth; depth++) {
-            if (System.currentTimeMillis() - startTime > timeLimit * 0.8) {
-                logger.debug("Time limit approaching, stopping at depth {}", depth - 1);
+        // The AI plays for the side to move, which lets it drive either side in self-play
+        String symbol = game.getCurrentPlayer().getSymbol();
+        Search search = new Search(symbol, opponentOf(game, symbol), limits, selectiveOf(limits));
+        MoveAnalysis best = searchRoot(board, search, 1).get(0);
+        search.record(statistics);
+
+        logger.debug("Hard AI chose move: ({}, {})", best.getMove().getRow(), best.getMove().getCol());
+        return best;
+    }
+
+    /**
+     * Analyzes the position for the player to move and returns up to {@code lineCount}
+     * candidate moves, best first, each with its score and principal variation.
+     * Scores are from the point of view of the player to move.
+     *
+     * @param game      the game to analyze
+     * @param lineCount the number of candidate moves to return
+     * @return the candidate moves, or an empty list if no move is available
+     */
+    public List<MoveAnalysis> analyze(Game game, int lineCount) {
+        return analyze(game, lineCount, defaultLimits(), new SearchStatistics());
+    }
+
+    /**
+     * Analyzes the position like {@link #analyze(Game, int)}, within the given search limits.
+     *
+     * @param game       the game to analyze
+     * @param lineCount  the number of candidate moves to return
+     * @param limits     the depth, time and node budget for the analysis
+     * @param statistics receives the search statistics of the analysis
+     * @return the candidate moves, or an empty list if no move is available
+     */
+    public List<MoveAnalysis> analyze(Game game, int lineCount, SearchLimits limits, SearchStatistics statistics) {
+        logger.debug("Hard AI is analyzing game {} for {} lines", game.getId(), lineCount);
+        String symbol = game.getCurrentPlayer().getSymbol();
+        Search search = new Search(symbol, opponentOf(game, symbol), limits, selectiveOf(limits));
+        List<MoveAnalysis> lines = searchRoot(game.getBoard(), search, lineCount);
+        search.record(statistics);
+        return lines;
+    }
+
+    private SearchLimits defaultLimits() {
+        return new SearchLimits(maxDepth, timeLimit, 0);
+    }
+
+    private SelectiveSearch selectiveOf(SearchLimits limits) {
+        return limits.getSelectiveSearch() != null ? limits.getSelectiveSearch() : selectiveSearch;
+    }
+
+    private String opponentOf(Game game, String symbol) {
+        return symbol.equals(game.getHumanPlayer().getSymbol())
+                ? game.getComputerPlayer().getSymbol()
+                : game.getHumanPlayer().getSymbol();
+    }
+
+    private boolean isEmptyBoard(Board board) {
+        return board.getStoneCount() == 0;
+    }
+
+    private List<MoveAnalysis> searchRoot(Board board, Search search, int lineCount) {
+        List<Move> candidates = MoveGenerator.candidates(board);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Use iterative deepening to find the best moves within the time limit
+        List<MoveAnalysis> completed = List.of();
+        for (int depth = 1; depth <= search.limits.getMaxDepth(); depth++) {
+            if (search.nearTimeLimit()) {
+                break;
+            }
+
+            // Iterations are recorded as JFR events instead of being logged, which is too costly per iteration
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            long nodesBefore = search.nodes;
+            List<MoveAnalysis> iteration = searchIteration(board, search, candidates, depth, lineCount);
+            event.end();
+            if (event.shouldCommit()) {
+                event.depth = depth;
+                event.nodes = search.nodes - nodesBefore;
+                if (!iteration.isEmpty()) {
+                    MoveAnalysis best = iteration.get(0);
+                    event.bestRow = best.getMove().getRow();
+                    event.bestCol = best.getMove().getCol();
+                    event.bestScore = best.getScore();
+                }
+                event.abortReason = search.abortReason;
+                event.commit();
+            }
+
+            if (search.aborted) {
                 break;
             }
+            completed = iteration;
+            search.completedDepth = depth;
 
-            logger.debug("Starting minimax search at depth {}", depth);
-            alphabeta(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
+            // Search the strongest moves of this iteration first on the next one
+            candidates = new ArrayList<>(candidates.size());
+            for (MoveAnalysis analysis : completed) {
+                candidates.add(analysis.getMove());
+            }
         }
 
-        logger.debug("Hard AI chose move: ({}, {})", bestMove.getRow(), bestMove.getCol());
-        return bestMove;
+        if (completed.isEmpty()) {
+            // Not even depth 1 finished in time, fall back to the first candidate
+            Move fallback = candidates.get(0);
+            return List.of(new MoveAnalysis(fallback, 0, 0, List.of(fallback)));
+        }
+        return completed.size() > lineCount ? completed.subList(0, lineCount) : completed;
     }
 
-    private boolean isEmptyBoard(Board board) {
-        for (int i = 0; i < board.getSize(); i++) {
-            for (int j = 0; j < board.getSize(); j++) {
-                if (!board.getCell(i, j).isEmpty()) {
-                    return false;
-                }
+    private List<MoveAnalysis> searchIteration(Board board, Search search, List<Move> candidates,
+                                               int depth, int lineCount) {
+        List<MoveAnalysis> scored = new ArrayList<>(candidates.size());
+        int[] topScores = new int[lineCount];
+        // Until a line is scored there is no bound to beat
+        Arrays.fill(topScores, Integer.MIN_VALUE);
+
+        for (Move move : candidates) {
+            // Only moves that can enter the top lines need an exact score
+            int alpha = scored.size() >= lineCount ? topScores[lineCount - 1] : Integer.MIN_VALUE;
+            int score;
+
+            board.makeMove(move.getRow(), move.getCol(), search.maxSymbol);
+            if (board.isWinningMove(move.getRow(), move.getCol(), search.maxSymbol)) {
+                search.pvLength[1] = 1;
+                score = WIN_SCORE;
+            } else {
+                score = alphabeta(board, search, depth - 1, 1, alpha, Integer.MAX_VALUE, false,
+                        search.selective.getThreatExtensions());
+            }
+            board.undoMove(move.getRow(), move.getCol());
+
+            if (search.aborted) {
+                break;
             }
+
+            scored.add(new MoveAnalysis(move, score, depth, principalVariation(search, move, board.getSize())));
+            insertTopScore(topScores, Math.min(scored.size(), lineCount), score);
         }
-        return true;
+
+        // Stable sort keeps the previous iteration's order between equal scores
+        scored.sort(Comparator.comparingInt(MoveAnalysis::getScore).reversed());
+        return scored;
     }
 
-    private int alphabeta(Board board, int depth, int alpha, int beta, boolean maximizingPlayer) {
-        // Check if time limit is exceeded
-        if (System.currentTimeMillis() - startTime > timeLimit) {
+    private void insertTopScore(int[] topScores, int count, int score) {
+        int i = count - 1;
+        if (score <= topScores[i] && count == topScores.length) {
+            return;
+        }
+        while (i > 0 && topScores[i - 1] < score) {
+            topScores[i] = topScores[i - 1];
+            i--;
+        }
+        topScores[i] = score;
+    }
+
+    private int alphabeta(Board board, Search search, int depth, int ply, int alpha, int beta,
+                          boolean maximizingPlayer, int extensions) {
+        search.pvLength[ply] = ply;
+        search.nodes++;
+
+        // Check if the time or node budget is exhausted
+        if (search.outOfBudget()) {
+            search.aborted = true;
             return 0;
         }
 
         // Check terminal conditions
-        if (depth == 0) {
-            return evaluateBoard(board);
+        if (depth <= 0 || ply == MAX_PLY - 1) {
+            return evaluateBoard(board, search, maximizingPlayer);
+        }
+
+        // Neither side can complete a five anymore, the rest of the game is a draw
+        if (!board.canStillWin(search.maxSymbol) && !board.canStillWin(search.minSymbol)) {
+            return 0;
         }
 
-        List<Move> availableMoves = getAvailableMoves(board);
+        List<Move> availableMoves = MoveGenerator.candidates(board);
         if (availableMoves.isEmpty()) {
             return 0; // Draw
         }
 
-        if (maximizingPlayer) {
-            int maxEval = Integer.MIN_VALUE;
-            for (Move move : availableMoves) {
-                // Make the move
-                board.makeMove(move.getRow(), move.getCol(), aiSymbol);
-
-                // Check if this move would result in a win
-                if (board.checkWinningSequence(move.getRow(), move.getCol(), aiSymbol) != null) {
-                    // Undo the move
-                    board.getCell(move.getRow(), move.getCol()).setValue("");
-                    if (depth == maxDepth) {
-                        bestMove = move;
-                    }
-                    return 10000; // Win is highly valued
-                }
-
-                // Recursive evaluation
-                int eval = alphabeta(board, depth - 1, alpha, beta, false);
-
-                // Undo the move
-                board.getCell(move.getRow(), move.getCol()).setValue("");
+        String symbol = maximizingPlayer ? search.maxSymbol : search.minSymbol;
+        String opponent = maximizingPlayer ? search.minSymbol : search.maxSymbol;
+        int[] threats = MoveGenerator.orderByThreat(board, availableMoves, symbol, opponent);
+        SelectiveSearch selective = search.selective;
+
+        // Against a four only a five of our own or a block can avoid losing on the next move
+        int moveCount = availableMoves.size();
+        if (threats[0] >= MoveGenerator.BLOCKS_FOUR) {
+            moveCount = 0;
+            while (moveCount < threats.length && threats[moveCount] >= MoveGenerator.BLOCKS_FOUR) {
+                moveCount++;
+            }
+        }
 
-                if (eval > maxEval) {
-                    maxEval = eval;
-                    if (depth == maxDepth) {
-                        bestMove = move;
-                    }
-                }
+        // One ply above the leaves, a quiet move cannot lift a score this far past the bound
+        int staticEval = 0;
+        boolean futile = false;
+        if (selective.isFutilityPruning() && depth == 1) {
+            staticEval = evaluateBoard(board, search, maximizingPlayer);
+            futile = maximizingPlayer
+                    ? staticEval + selective.getFutilityMargin() <= alpha
+                    : staticEval - selective.getFutilityMargin() >= beta;
+        }
 
-                alpha = Math.max(alpha, maxEval);
-                if (beta <= alpha) {
-                    break; // Beta cutoff
-                }
+        int bestEval = maximizingPlayer ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int searched = 0;
+        for (int i = 0; i < moveCount; i++) {
+            Move move = availableMoves.get(i);
+            boolean quiet = threats[i] < MoveGenerator.QUIET_THREAT;
+            if (futile && quiet) {
+                continue;
             }
-            return maxEval;
-        } else {
-            int minEval = Integer.MAX_VALUE;
-            for (Move move : availableMoves) {
-                // Make the move
-                board.makeMove(move.getRow(), move.getCol(), humanSymbol);
-
-                // Check if this move would result in a loss
-                if (board.checkWinningSequence(move.getRow(), move.getCol(), humanSymbol) != null) {
-                    // Undo the move
-                    board.getCell(move.getRow(), move.getCol()).setValue("");
-                    return -10000; // Loss is highly avoided
-                }
 
-                // Recursive evaluation
-                int eval = alphabeta(board, depth - 1, alpha, beta, true);
+            // Make the move
+            board.makeMove(move.getRow(), move.getCol(), symbol);
 
+            // A winning move ends the line, no need to search further
+            if (board.isWinningMove(move.getRow(), move.getCol(), symbol)) {
                 // Undo the move
-                board.getCell(move.getRow(), move.getCol()).setValue("");
+                board.undoMove(move.getRow(), move.getCol());
+                updatePrincipalVariation(search, ply, move, board.getSize(), true);
+                return maximizingPlayer ? WIN_SCORE : -WIN_SCORE;
+            }
 
-                minEval = Math.min(minEval, eval);
-                beta = Math.min(beta, minEval);
-                if (beta <= alpha) {
-                    break; // Alpha cutoff
-                }
+            // A four made at the horizon forces the reply, so look one ply further instead of stopping there
+            int childDepth = depth - 1;
+            int childExtensions = extensions;
+            if (threats[i] == MoveGenerator.MAKES_FOUR && extensions > 0 && childDepth == 0) {
+                childDepth = depth;
+                childExtensions--;
             }
-            return minEval;
-        }
-    }
 
-    private List<Move> getAvailableMoves(Board board) {
-        // Optimization: On a 20x20 board, we only consider cells near existing moves
-        // This significantly reduces the search space
-        List<Move> availableMoves = new ArrayList<>();
-        boolean[][] considered = new boolean[board.getSize()][board.getSize()];
-
-        // First find all occupied cells
-        for (int row = 0; row < board.getSize(); row++) {
-            for (int col = 0; col < board.getSize(); col++) {
-                if (!board.getCell(row, col).isEmpty()) {
-                    // Mark all neighbors (within 2 cells) for consideration
-                    markNeighborsForConsideration(considered, row, col, board.getSize());
+            // Quiet moves ordered late are searched shallower first, and again at full depth only if they look good
+            int eval;
+            if (selective.isLateMoveReductions() && quiet && searched >= selective.getReductionMinMoves()
+                    && depth >= selective.getReductionMinDepth()) {
+                eval = alphabeta(board, search, Math.max(0, childDepth - 1), ply + 1, alpha, beta,
+                        !maximizingPlayer, childExtensions);
+                boolean improves = maximizingPlayer ? eval > alpha : eval < beta;
+                if (improves && !search.aborted) {
+                    eval = alphabeta(board, search, childDepth, ply + 1, alpha, beta, !maximizingPlayer,
+                            childExtensions);
                 }
+            } else {
+                eval = alphabeta(board, search, childDepth, ply + 1, alpha, beta, !maximizingPlayer,
+                        childExtensions);
             }
-        }
 
-        // Now collect all empty cells that were marked for consideration
-        for (int row = 0; row < board.getSize(); row++) {
-            for (int col = 0; col < board.getSize(); col++) {
-                if (considered[row][col] && board.getCell(row, col).isEmpty()) {
-                    availableMoves.add(new Move(row, col));
-                }
+            // Undo the move
+            board.undoMove(move.getRow(), move.getCol());
+            searched++;
+
+            if (search.aborted) {
+                return 0;
             }
-        }
 
-        // If no moves found (e.g., first move on empty board), consider center area
-        if (availableMoves.isEmpty()) {
-            int center = board.getSize() / 2;
-            for (int row = center - 2; row <= center + 2; row++) {
-                for (int col = center - 2; col <= center + 2; col++) {
-                    if (board.isValidPosition(row, col) && board.getCell(row, col).isEmpty()) {
-                        availableMoves.add(new Move(row, col));
-                    }
-                }
+            if (maximizingPlayer ? eval > bestEval : eval < bestEval) {
+                bestEval = eval;
+                updatePrincipalVariation(search, ply, move, board.getSize(), false);
+            }
+
+            if (maximizingPlayer) {
+                alpha = Math.max(alpha, bestEval);
+            } else {
+                beta = Math.min(beta, bestEval);
+            }
+            // A cutoff, or a forced win for the side to move that no other move can beat
+            if (beta <= alpha || bestEval == (maximizingPlayer ? WIN_SCORE : -WIN_SCORE)) {
+                break;
             }
         }
 
-        return availableMoves;
+        // Every move was futile, the static score stands for the node
+        return searched == 0 ? staticEval : bestEval;
     }
 
-    private void markNeighborsForConsideration(boolean[][] considered, int row, int col, int size) {
-        for (int i = Math.max(0, row - 2); i <= Math.min(size - 1, row + 2); i++) {
-            for (int j = Math.max(0, col - 2); j <= Math.min(size - 1, col + 2); j++) {
-                considered[i][j] = true;
-            }
+    private void updatePrincipalVariation(Search search, int ply, Move move, int size, boolean endsLine) {
+        int[] line = search.pv[ply];
+        line[ply] = move.getRow() * size + move.getCol();
+        if (endsLine) {
+            search.pvLength[ply] = ply + 1;
+            return;
         }
+        int childLength = search.pvLength[ply + 1];
+        System.arraycopy(search.pv[ply + 1], ply + 1, line, ply + 1, childLength - ply - 1);
+        search.pvLength[ply] = childLength;
     }
 
-    private int evaluateBoard(Board board) {
-        // Calculate scores based on potential winning sequences
-        int aiScore = calculateScore(board, aiSymbol);
-        int humanScore = calculateScore(board, humanSymbol);
-
-        return aiScore - humanScore;
+    private List<Move> principalVariation(Search search, Move rootMove, int size) {
+        List<Move> variation = new ArrayList<>();
+        variation.add(rootMove);
+        for (int i = 1; i < search.pvLength[1]; i++) {
+            int index = search.pv[1][i];
+            variation.add(new Move(index / size, index % size));
+        }
+        return variation;
     }
 
-    private int calculateScore(Board board, String symbol) {
-        int score = 0;
+    private int evaluateBoard(Board board, Search search, boolean maximizingPlayer) {
+        // Score the open windows of both players with the side to move's tempo, then return
+        // the score from the maximizing side's point of view like every other minimax value
+        PatternCounter.count(board, search.maxSymbol, search.patternCounts);
+        int[] maxCounts = search.patternCounts[0];
+        int[] minCounts = search.patternCounts[1];
 
-        // Check horizontal sequences
-        for (int row = 0; row < board.getSize(); row++) {
-            for (int col = 0; col < board.getSize() - 4; col++) {
-                score += evaluateSequence(board, row, col, 0, 1, symbol);
-            }
-        }
+        return maximizingPlayer
+                ? evaluationWeights.evaluate(maxCounts, minCounts)
+                : -evaluationWeights.evaluate(minCounts, maxCounts);
+    }
 
-        // Check vertical sequences
-        for (int row = 0; row < board.getSize() - 4; row++) {
-            for (int col = 0; col < board.getSize(); col++) {
-                score += evaluateSequence(board, row, col, 1, 0, symbol);
-            }
+    /**
+     * Per-call search state, so concurrent moves and analyses on the shared bean
+     * do not interfere with each other.
+     */
+    private static final class Search {
+        private final String maxSymbol;
+        private final String minSymbol;
+        private final SearchLimits limits;
+        private final SelectiveSearch selective;
+        private final long startNanos = System.nanoTime();
+        private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+        private final int[] pvLength = new int[MAX_PLY];
+        private final int[][] patternCounts = new int[2][PatternCounter.WINDOW];
+        private long nodes;
+        private int completedDepth;
+        private boolean aborted;
+        private String abortReason = "";
+
+        private Search(String maxSymbol, String minSymbol, SearchLimits limits, SelectiveSearch selective) {
+            this.maxSymbol = maxSymbol;
+            this.minSymbol = minSymbol;
+            this.limits = limits;
+            this.selective = selective;
         }
 
-        // Check diagonal sequences (top-left to bottom-right)
-        for (int row = 0; row < board.getSize() - 4; row++) {
-            for (int col = 0; col < board.getSize() - 4; col++) {
-                score += evaluateSequence(board, row, col, 1, 1, symbol);
-            }
+        private long elapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
         }
 
-        // Check diagonal sequences (top-right to bottom-left)
-        for (int row = 0; row < board.getSize() - 4; row++) {
-            for (int col = 4; col < board.getSize(); col++) {
-                score += evaluateSequence(board, row, col, 1, -1, symbol);
-            }
+        private boolean nearTimeLimit() {
+            return limits.getTimeLimitMs() > 0 && elapsedMillis() > limits.getTimeLimitMs() * 0.8;
         }
 
-        return score;
-    }
-
-    private int evaluateSequence(Board board, int row, int col, int rowDir, int colDir, String symbol) {
-        String opponentSymbol = symbol.equals(aiSymbol) ? humanSymbol : aiSymbol;
-        int ownCount = 0;
-        int emptyCount = 0;
-
-        for (int i = 0; i < 5; i++) {
-            int newRow = row + i * rowDir;
-            int newCol = col + i * colDir;
-            String cellValue = board.getCell(newRow, newCol).getValue();
-
-            if (cellValue.equals(symbol)) {
-                ownCount++;
-            } else if (cellValue.isEmpty()) {
-                emptyCount++;
-            } else if (cellValue.equals(opponentSymbol)) {
-                // If sequence contains opponent's symbol, it's not valuable
-                return 0;
+        private boolean outOfBudget() {
+            if (limits.getNodeLimit() > 0 && nodes > limits.getNodeLimit()) {
+                abortReason = "node limit";
+                return true;
+            }
+            if (limits.getTimeLimitMs() > 0 && elapsedMillis() > limits.getTimeLimitMs()) {
+                abortReason = "time limit";
+                return true;
             }
+            return false;
         }
 
-        // Score the sequence based on how many of our symbols are in it
-        // and if it can still be completed (has enough empty spaces)
-        if (ownCount + emptyCount == 5) {
-            // Exponential scoring to prefer sequences with more symbols
-            return (int) Math.pow(10, ownCount);
+        private void record(SearchStatistics statistics) {
+            statistics.setNodes(nodes);
+            statistics.setDepth(completedDepth);
+            statistics.setElapsedNanos(System.nanoTime() - startNanos);
         }
-
-        return 0;
     }
-}
\ No newline at end of file
+}
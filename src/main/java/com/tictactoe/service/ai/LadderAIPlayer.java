@@ -0,0 +1,86 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.Move;
+import com.tictactoe.model.PositionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A difficulty level between easy and hard. Each move is a search with a fixed
+ * node budget and depth cap and no time limit, so a move costs the same amount
+ * of work on any hardware. Weaker levels add noise to the scores of the top
+ * candidate moves before choosing one; the noise is seeded by the position, so
+ * the same position always produces the same move.
+ */
+public class LadderAIPlayer implements AIPlayer {
+    private static final Logger logger = LoggerFactory.getLogger(LadderAIPlayer.class);
+    private static final int NOISY_LINES = 4;
+
+    private final HardAIPlayer hardAIPlayer;
+    private final String name;
+    private final SearchLimits limits;
+    private final int noise;
+
+    /**
+     * @param hardAIPlayer the engine that runs the searches
+     * @param name         the difficulty level name
+     * @param maxDepth     the deepest iteration to search
+     * @param nodeLimit    the node budget per move
+     * @param noise        the largest score offset added to a candidate move, or 0 to always play the best move
+     */
+    public LadderAIPlayer(HardAIPlayer hardAIPlayer, String name, int maxDepth, long nodeLimit, int noise) {
+        this.hardAIPlayer = hardAIPlayer;
+        this.name = name;
+        this.limits = new SearchLimits(maxDepth, 0, nodeLimit);
+        this.noise = noise;
+    }
+
+    @Override
+    public Move makeMove(Game game) {
+        return makeMove(game, limits, new SearchStatistics());
+    }
+
+    // The level's own limits always apply, so its cost per move stays fixed
+    @Override
+    public Move makeMove(Game game, SearchLimits ignored, SearchStatistics statistics) {
+        List<MoveAnalysis> lines = hardAIPlayer.analyze(game, noise > 0 ? NOISY_LINES : 1, limits, statistics);
+        if (lines.isEmpty()) {
+            logger.warn("No available moves for {} AI", name);
+            return null;
+        }
+
+        MoveAnalysis chosen = lines.get(0);
+        if (noise > 0) {
+            SplittableRandom random = new SplittableRandom(
+                    PositionKey.of(game.getBoard(), game.getCurrentPlayer().getSymbol()).getKey() ^ name.hashCode());
+            long bestScore = Long.MIN_VALUE;
+            for (MoveAnalysis line : lines) {
+                // Widened to long, a won line plus noise must not overflow
+                long score = (long) line.getScore() + random.nextInt(noise + 1);
+                if (score > bestScore) {
+                    bestScore = score;
+                    chosen = line;
+                }
+            }
+        }
+
+        logger.debug("{} AI chose move: ({}, {})", name, chosen.getMove().getRow(), chosen.getMove().getCol());
+        return chosen.getMove();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    public int getNoise() {
+        return noise;
+    }
+}
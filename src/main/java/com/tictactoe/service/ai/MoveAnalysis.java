@@ -0,0 +1,46 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+public class MoveAnalysis {
+    private final Move move;
+    private final int score;
+    private final int depth;
+    private final List<Move> principalVariation;
+
+    public MoveAnalysis(Move move, int score, int depth, List<Move> principalVariation) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = principalVariation;
+    }
+
+    public Move getMove() {
+        return move;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    // The same analysis with every move transformed, e.g. between symmetric positions
+    public MoveAnalysis map(UnaryOperator<Move> transform) {
+        List<Move> variation = new ArrayList<>(principalVariation.size());
+        for (Move pvMove : principalVariation) {
+            variation.add(transform.apply(pvMove));
+        }
+        return new MoveAnalysis(transform.apply(move), score, depth, variation);
+    }
+}
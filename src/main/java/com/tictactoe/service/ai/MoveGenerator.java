@@ -0,0 +1,127 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Board;
+import com.tictactoe.model.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Candidate moves and their threat ordering, shared by the alpha-beta search and the proof-number solver
+final class MoveGenerator {
+    // Threat classes used for move ordering; anything below QUIET_THREAT neither makes nor blocks a three
+    static final int MAKES_FIVE = 5;
+    static final int BLOCKS_FOUR = 4;
+    static final int MAKES_FOUR = 3;
+    static final int BLOCKS_THREE = 2;
+    static final int MAKES_THREE = 1;
+    static final int QUIET_THREAT = MAKES_THREE;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * The moves worth considering: empty cells within two of a stone that are not dead,
+     * any live cell once the neighbourhood is dead, and the centre on an empty board.
+     */
+    static List<Move> candidates(Board board) {
+        // Optimization: On a 20x20 board, we only consider cells near existing moves
+        // This significantly reduces the search space
+        List<Move> availableMoves = new ArrayList<>();
+        boolean[][] considered = new boolean[board.getSize()][board.getSize()];
+
+        // First find all occupied cells
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                if (!board.getCell(row, col).isEmpty()) {
+                    // Mark all neighbors (within 2 cells) for consideration
+                    markNeighborsForConsideration(considered, row, col, board.getSize());
+                }
+            }
+        }
+
+        // Now collect all empty cells that were marked for consideration,
+        // skipping dead cells where every window is already blocked for both players
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                if (considered[row][col] && board.getCell(row, col).isEmpty() && !board.isDeadCell(row, col)) {
+                    availableMoves.add(new Move(row, col));
+                }
+            }
+        }
+
+        // If the neighborhood is dead, look for live cells anywhere on the board
+        if (availableMoves.isEmpty() && board.getStoneCount() > 0) {
+            for (int row = 0; row < board.getSize(); row++) {
+                for (int col = 0; col < board.getSize(); col++) {
+                    if (board.getCell(row, col).isEmpty() && !board.isDeadCell(row, col)) {
+                        availableMoves.add(new Move(row, col));
+                    }
+                }
+            }
+        }
+
+        // If no moves found (e.g., first move on empty board), consider center area
+        if (availableMoves.isEmpty() && board.getStoneCount() == 0) {
+            int center = board.getSize() / 2;
+            for (int row = center - 2; row <= center + 2; row++) {
+                for (int col = center - 2; col <= center + 2; col++) {
+                    if (board.isValidPosition(row, col) && board.getCell(row, col).isEmpty()) {
+                        availableMoves.add(new Move(row, col));
+                    }
+                }
+            }
+        }
+
+        return availableMoves;
+    }
+
+    private static void markNeighborsForConsideration(boolean[][] considered, int row, int col, int size) {
+        for (int i = Math.max(0, row - 2); i <= Math.min(size - 1, row + 2); i++) {
+            for (int j = Math.max(0, col - 2); j <= Math.min(size - 1, col + 2); j++) {
+                considered[i][j] = true;
+            }
+        }
+    }
+
+    /**
+     * Sorts the moves by how forcing they are: winning, blocking a four, making a four,
+     * blocking a three, making a three, then the rest in board order. Returns the threat
+     * class of each move in the sorted order.
+     */
+    static int[] orderByThreat(Board board, List<Move> moves, String symbol, String opponent) {
+        int size = board.getSize();
+        int[] keys = new int[moves.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Move move = moves.get(i);
+            int made = board.longestOpenWindow(move.getRow(), move.getCol(), symbol) + 1;
+            int blocked = board.longestOpenWindow(move.getRow(), move.getCol(), opponent);
+            int threat;
+            if (made >= 5) {
+                threat = MAKES_FIVE;
+            } else if (blocked >= 4) {
+                threat = BLOCKS_FOUR;
+            } else if (made == 4) {
+                threat = MAKES_FOUR;
+            } else if (blocked == 3) {
+                threat = BLOCKS_THREE;
+            } else if (made == 3) {
+                threat = MAKES_THREE;
+            } else {
+                threat = 0;
+            }
+            // Threat class in the high bits, the reversed original index keeps board order within a class
+            keys[i] = (threat << 16) | (0xFFFF - (move.getRow() * size + move.getCol()));
+        }
+        Arrays.sort(keys);
+
+        int[] threats = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            int key = keys[keys.length - 1 - i];
+            int cell = 0xFFFF - (key & 0xFFFF);
+            moves.set(i, new Move(cell / size, cell % size));
+            threats[i] = key >>> 16;
+        }
+        return threats;
+    }
+}
@@ -0,0 +1,26 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Board;
+
+public final class PatternCounter {
+    public static final int WINDOW = 5;
+
+    private PatternCounter() {
+    }
+
+    /**
+     * Counts the five-cell windows each player can still complete, by the number of
+     * stones already in them. {@code counts[0][k]} receives the windows of {@code symbol}
+     * holding k stones and {@code counts[1][k]} those of the opponent. Windows holding
+     * stones of both players are dead and not counted; empty windows count for both.
+     *
+     * @param board  the board to scan
+     * @param symbol the player whose windows go into {@code counts[0]}
+     * @param counts two arrays of {@link #WINDOW} counters, overwritten by this call
+     */
+    public static void count(Board board, String symbol, int[][] counts) {
+        // The board keeps these counts up to date as stones are placed and removed
+        board.copyOpenWindowCounts(symbol, counts[0]);
+        board.copyOpenWindowCounts("X".equals(symbol) ? "O" : "X", counts[1]);
+    }
+}
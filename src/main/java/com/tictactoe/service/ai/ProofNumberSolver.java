@@ -0,0 +1,380 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Board;
+import com.tictactoe.model.Move;
+import com.tictactoe.model.PositionKey;
+import com.tictactoe.model.Symmetry;
+import com.tictactoe.model.Zobrist;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Depth-first proof-number search (df-pn). A run asks one question, whether an
+ * attacker can force a five, and grows the proof tree towards the moves that look
+ * easiest to prove or refute. Proof and disproof numbers are kept in a table of
+ * bounded size, so a run's memory stays fixed however many nodes it searches.
+ * A win is proved by a run for the player to move, a loss by a run for the opponent,
+ * and a draw once both are refuted. Moves are the hard search's candidates, so
+ * results hold within the cells it considers. Proved positions never change, so
+ * they are kept without expiry, up to a bound, for their canonical orientation.
+ */
+@Component
+public class ProofNumberSolver {
+    private static final Logger logger = LoggerFactory.getLogger(ProofNumberSolver.class);
+    // Proof and disproof numbers saturate below this, reaching it means proved or refuted
+    private static final int INFINITY = 100_000_000;
+    private static final int MAX_LINE_LENGTH = 60;
+
+    private final int maxTableSize;
+    private final Map<Long, Solution> provedPositions;
+
+    @Autowired
+    public ProofNumberSolver(@Value("${game.ai.solver.table-size}") int maxTableSize,
+                             @Value("${game.ai.solver.proved-cache-size}") int maxProvedPositions) {
+        this.maxTableSize = Integer.highestOneBit(Math.max(2, maxTableSize));
+        // Access-ordered map, so the least recently used position is evicted first
+        this.provedPositions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Solution> eldest) {
+                return size() > maxProvedPositions;
+            }
+        };
+    }
+
+    /**
+     * Tries to prove the position won, lost or drawn for the player to move. The
+     * question whether the player to move wins gets up to half of the node budget,
+     * whether the opponent wins the rest.
+     *
+     * @param board     the position, left unchanged
+     * @param toMove    the symbol of the player to move
+     * @param opponent  the symbol of the other player
+     * @param nodeLimit the node budget for both questions together
+     * @return the solution, {@link Solution.Outcome#UNKNOWN} if nothing was proved within the budget
+     */
+    public Solution solve(Board board, String toMove, String opponent, long nodeLimit) {
+        long start = System.nanoTime();
+        PositionKey positionKey = PositionKey.of(board, toMove);
+        Solution known = findProved(positionKey);
+        if (known != null) {
+            return known;
+        }
+
+        Run win = new Run(board, toMove, Math.max(1, nodeLimit / 2));
+        win.search(toMove, opponent);
+        Solution solution;
+        if (win.proved()) {
+            List<Move> line = win.line(toMove, opponent);
+            solution = new Solution(Solution.Outcome.WIN, line.get(0), line, win.nodes);
+        } else {
+            Run loss = new Run(board, opponent, Math.max(1, nodeLimit - win.nodes));
+            loss.search(toMove, opponent);
+            long nodes = win.nodes + loss.nodes;
+            if (loss.proved()) {
+                solution = new Solution(Solution.Outcome.LOSS, null, loss.line(toMove, opponent), nodes);
+            } else if (win.refuted() && loss.refuted()) {
+                solution = new Solution(Solution.Outcome.DRAW, null, List.of(), nodes);
+            } else {
+                solution = new Solution(Solution.Outcome.UNKNOWN, null, List.of(), nodes);
+            }
+        }
+
+        logger.debug("Solver found {} after {} nodes in {} ms", solution.getOutcome(), solution.getNodes(),
+                (System.nanoTime() - start) / 1_000_000);
+        if (solution.isProved()) {
+            storeProved(positionKey, solution);
+        }
+        return solution;
+    }
+
+    /**
+     * Looks only for a forced win of the player to move, with the whole node budget.
+     *
+     * @return the winning move, or null if no win was proved within the budget
+     */
+    public Move findForcedWin(Board board, String toMove, String opponent, long nodeLimit) {
+        PositionKey positionKey = PositionKey.of(board, toMove);
+        Solution known = findProved(positionKey);
+        if (known != null) {
+            return known.getMove();
+        }
+
+        Run win = new Run(board, toMove, nodeLimit);
+        win.search(toMove, opponent);
+        if (!win.proved()) {
+            return null;
+        }
+        List<Move> line = win.line(toMove, opponent);
+        storeProved(positionKey, new Solution(Solution.Outcome.WIN, line.get(0), line, win.nodes));
+        logger.debug("Solver proved a win in {} plies after {} nodes", line.size(), win.nodes);
+        return line.get(0);
+    }
+
+    private Solution findProved(PositionKey positionKey) {
+        Solution canonical;
+        synchronized (provedPositions) {
+            canonical = provedPositions.get(positionKey.getKey());
+        }
+        return canonical == null ? null : canonical.map(positionKey::fromCanonical, 0);
+    }
+
+    private void storeProved(PositionKey positionKey, Solution solution) {
+        Solution canonical = solution.map(positionKey::toCanonical, solution.getNodes());
+        synchronized (provedPositions) {
+            provedPositions.put(positionKey.getKey(), canonical);
+        }
+    }
+
+    private int tableSizeFor(long nodeLimit) {
+        // A run stores at most one entry per node, so small budgets get small tables
+        long needed = Long.highestOneBit(Math.max(2, nodeLimit)) * 2;
+        return (int) Math.min(maxTableSize, needed);
+    }
+
+    private static int add(int a, int b) {
+        if (a >= INFINITY || b >= INFINITY) {
+            return INFINITY;
+        }
+        return Math.min(INFINITY - 1, a + b);
+    }
+
+    /**
+     * One df-pn run on its own table. Numbers are kept from the side to move's point
+     * of view: phi is the proof number of the attacker's win where the attacker moves
+     * and its disproof number where the defender moves, delta the other one. A node's
+     * phi is then the smallest delta of its children and its delta the sum of their phis.
+     */
+    private final class Run {
+        private final Board board;
+        private final String attacker;
+        private final long nodeLimit;
+        private final long[] keys;
+        private final int[] phis;
+        private final int[] deltas;
+        private final int[] work;
+        private final int mask;
+        private long nodes;
+        private int rootPhi;
+        private int rootDelta;
+        private boolean rootAttacks;
+        private Move rootMove;
+
+        private Run(Board board, String attacker, long nodeLimit) {
+            this.board = board;
+            this.attacker = attacker;
+            this.nodeLimit = nodeLimit;
+            int tableSize = tableSizeFor(nodeLimit);
+            this.keys = new long[tableSize];
+            this.phis = new int[tableSize];
+            this.deltas = new int[tableSize];
+            this.work = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        private void search(String side, String other) {
+            long[] result = new long[2];
+            expand(side, other, INFINITY, INFINITY, 0, result);
+            rootPhi = (int) result[0];
+            rootDelta = (int) result[1];
+            rootAttacks = side.equals(attacker);
+        }
+
+        private boolean proved() {
+            return (rootAttacks ? rootPhi : rootDelta) == 0;
+        }
+
+        private boolean refuted() {
+            return (rootAttacks ? rootDelta : rootPhi) == 0;
+        }
+
+        // Searches the node until its phi or delta reaches the threshold, leaving both in result
+        private void expand(String side, String other, int thPhi, int thDelta, int ply, long[] result) {
+            nodes++;
+            long startNodes = nodes;
+            long key = keyOf(side);
+            boolean attacking = side.equals(attacker);
+
+            // Once the attacker has no window left, the best it can get is a draw
+            List<Move> moves = board.canStillWin(attacker) ? MoveGenerator.candidates(board) : List.of();
+            if (moves.isEmpty()) {
+                finish(key, attacking ? INFINITY : 0, attacking ? 0 : INFINITY, startNodes, result);
+                return;
+            }
+
+            int[] threats = MoveGenerator.orderByThreat(board, moves, side, other);
+            if (threats[0] == MoveGenerator.MAKES_FIVE) {
+                if (ply == 0) {
+                    rootMove = moves.get(0);
+                }
+                finish(key, 0, INFINITY, startNodes, result);
+                return;
+            }
+
+            // Against a four only a block can avoid losing on the next move
+            int count = moves.size();
+            if (threats[0] == MoveGenerator.BLOCKS_FOUR) {
+                count = 0;
+                while (count < threats.length && threats[count] == MoveGenerator.BLOCKS_FOUR) {
+                    count++;
+                }
+            }
+
+            long[] childKeys = new long[count];
+            int[] childPhis = new int[count];
+            int[] childDeltas = new int[count];
+            int size = board.getSize();
+            for (int i = 0; i < count; i++) {
+                Move move = moves.get(i);
+                childKeys[i] = key ^ Zobrist.sideToMove(side) ^ Zobrist.sideToMove(other)
+                        ^ Zobrist.key(move.getRow() * size + move.getCol(), side);
+                int slot = find(childKeys[i]);
+                childPhis[i] = slot < 0 ? 1 : phis[slot];
+                childDeltas[i] = slot < 0 ? 1 : deltas[slot];
+            }
+
+            while (true) {
+                int phi = INFINITY;
+                int secondDelta = INFINITY;
+                int delta = 0;
+                int best = 0;
+                for (int i = 0; i < count; i++) {
+                    if (childDeltas[i] < phi) {
+                        secondDelta = phi;
+                        phi = childDeltas[i];
+                        best = i;
+                    } else if (childDeltas[i] < secondDelta) {
+                        secondDelta = childDeltas[i];
+                    }
+                    delta = add(delta, childPhis[i]);
+                }
+
+                if (phi >= thPhi || delta >= thDelta || nodes >= nodeLimit) {
+                    if (ply == 0) {
+                        rootMove = moves.get(best);
+                    }
+                    finish(key, phi, delta, startNodes, result);
+                    return;
+                }
+
+                // Search the most promising child until it stops being the most promising
+                int childThPhi = (int) Math.min(INFINITY, (long) thDelta - delta + childPhis[best]);
+                int childThDelta = Math.min(thPhi, add(secondDelta, 1));
+                Move move = moves.get(best);
+                board.makeMove(move.getRow(), move.getCol(), side);
+                expand(other, side, childThPhi, childThDelta, ply + 1, result);
+                board.undoMove(move.getRow(), move.getCol());
+                childPhis[best] = (int) result[0];
+                childDeltas[best] = (int) result[1];
+            }
+        }
+
+        private void finish(long key, int phi, int delta, long startNodes, long[] result) {
+            store(key, phi, delta, (int) Math.min(Integer.MAX_VALUE, nodes - startNodes + 1));
+            result[0] = phi;
+            result[1] = delta;
+        }
+
+        /**
+         * Follows the proof from the root: the attacker plays a proved move and the
+         * defender the reply that took the most work to refute. Stops at the five or
+         * where the table no longer holds the proof.
+         */
+        private List<Move> line(String side, String other) {
+            List<Move> line = new ArrayList<>();
+            int size = board.getSize();
+            while (line.size() < MAX_LINE_LENGTH) {
+                List<Move> moves = MoveGenerator.candidates(board);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                int[] threats = MoveGenerator.orderByThreat(board, moves, side, other);
+                Move chosen = null;
+                if (threats[0] == MoveGenerator.MAKES_FIVE) {
+                    chosen = moves.get(0);
+                } else {
+                    long key = keyOf(side);
+                    boolean attacking = side.equals(attacker);
+                    int mostWork = -1;
+                    for (Move move : moves) {
+                        long childKey = key ^ Zobrist.sideToMove(side) ^ Zobrist.sideToMove(other)
+                                ^ Zobrist.key(move.getRow() * size + move.getCol(), side);
+                        int slot = find(childKey);
+                        if (slot < 0) {
+                            continue;
+                        }
+                        if (attacking ? deltas[slot] == 0 : phis[slot] == 0 && work[slot] > mostWork) {
+                            chosen = move;
+                            mostWork = work[slot];
+                            if (attacking) {
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (chosen == null) {
+                    break;
+                }
+
+                line.add(chosen);
+                board.makeMove(chosen.getRow(), chosen.getCol(), side);
+                if (threats[0] == MoveGenerator.MAKES_FIVE) {
+                    break;
+                }
+                String next = other;
+                other = side;
+                side = next;
+            }
+
+            for (int i = line.size() - 1; i >= 0; i--) {
+                board.undoMove(line.get(i).getRow(), line.get(i).getCol());
+            }
+            // The root's move is known even if the table lost the rest of the proof
+            if (line.isEmpty() && rootAttacks && rootMove != null) {
+                line.add(rootMove);
+            }
+            return line;
+        }
+
+        private long keyOf(String side) {
+            return board.getSymmetryHash(Symmetry.IDENTITY) ^ Zobrist.sideToMove(side);
+        }
+
+        // Entries live in buckets of two slots
+        private int find(long key) {
+            int bucket = bucketOf(key);
+            if (keys[bucket] == key) {
+                return bucket;
+            }
+            return keys[bucket + 1] == key ? bucket + 1 : -1;
+        }
+
+        // The slot holding the key, else the one whose subtree took less work to search
+        private void store(long key, int phi, int delta, int nodeWork) {
+            int bucket = bucketOf(key);
+            int slot;
+            if (keys[bucket] == key) {
+                slot = bucket;
+            } else if (keys[bucket + 1] == key) {
+                slot = bucket + 1;
+            } else {
+                slot = work[bucket] <= work[bucket + 1] ? bucket : bucket + 1;
+            }
+            keys[slot] = key;
+            phis[slot] = phi;
+            deltas[slot] = delta;
+            work[slot] = nodeWork;
+        }
+
+        private int bucketOf(long key) {
+            return (int) (key ^ (key >>> 32)) & mask & ~1;
+        }
+    }
+}
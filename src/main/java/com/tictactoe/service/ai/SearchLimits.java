@@ -0,0 +1,46 @@
+package com.tictactoe.service.ai;
+
+public class SearchLimits {
+    private final int maxDepth;
+    private final long timeLimitMs;
+    private final long nodeLimit;
+    private final SelectiveSearch selectiveSearch;
+
+    /**
+     * @param maxDepth    the deepest iteration to search
+     * @param timeLimitMs the wall-clock budget per move, or 0 for none
+     * @param nodeLimit   the node budget per move, or 0 for none
+     */
+    public SearchLimits(int maxDepth, long timeLimitMs, long nodeLimit) {
+        this(maxDepth, timeLimitMs, nodeLimit, null);
+    }
+
+    /**
+     * @param maxDepth        the deepest iteration to search
+     * @param timeLimitMs     the wall-clock budget per move, or 0 for none
+     * @param nodeLimit       the node budget per move, or 0 for none
+     * @param selectiveSearch the pruning and extensions to apply, or null for the player's configured ones
+     */
+    public SearchLimits(int maxDepth, long timeLimitMs, long nodeLimit, SelectiveSearch selectiveSearch) {
+        this.maxDepth = maxDepth;
+        this.timeLimitMs = timeLimitMs;
+        this.nodeLimit = nodeLimit;
+        this.selectiveSearch = selectiveSearch;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getTimeLimitMs() {
+        return timeLimitMs;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    public SelectiveSearch getSelectiveSearch() {
+        return selectiveSearch;
+    }
+}
@@ -0,0 +1,68 @@
+package com.tictactoe.service.ai;
+
+/**
+ * Which selective-search techniques the hard AI applies inside alpha-beta.
+ * Each can be switched off on its own to measure what it is worth in self-play.
+ */
+public class SelectiveSearch {
+    private static final SelectiveSearch NONE = new SelectiveSearch(false, 0, 0, false, 0, 0);
+
+    private final boolean lateMoveReductions;
+    private final int reductionMinMoves;
+    private final int reductionMinDepth;
+    private final boolean futilityPruning;
+    private final int futilityMargin;
+    private final int threatExtensions;
+
+    /**
+     * @param lateMoveReductions whether quiet moves ordered late are searched one ply shallower first
+     * @param reductionMinMoves  the number of moves searched at full depth before reductions start
+     * @param reductionMinDepth  the shallowest remaining depth at which moves are reduced
+     * @param futilityPruning    whether quiet moves are skipped one ply above the leaves when the
+     *                           static score is too far below the bound for them to matter
+     * @param futilityMargin     the most a quiet move is assumed to change the static score
+     * @param threatExtensions   the most plies a line is extended by moves that make a four
+     */
+    public SelectiveSearch(boolean lateMoveReductions, int reductionMinMoves, int reductionMinDepth,
+                           boolean futilityPruning, int futilityMargin, int threatExtensions) {
+        // A reduced move is searched two plies shallower than its parent, which needs at least two plies left
+        if (lateMoveReductions && reductionMinDepth < 2) {
+            throw new IllegalArgumentException("Reduction min depth must be at least 2, got " + reductionMinDepth);
+        }
+        this.lateMoveReductions = lateMoveReductions;
+        this.reductionMinMoves = reductionMinMoves;
+        this.reductionMinDepth = reductionMinDepth;
+        this.futilityPruning = futilityPruning;
+        this.futilityMargin = futilityMargin;
+        this.threatExtensions = threatExtensions;
+    }
+
+    // Full-width search, every move at full depth and no extensions
+    public static SelectiveSearch none() {
+        return NONE;
+    }
+
+    public boolean isLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public int getReductionMinMoves() {
+        return reductionMinMoves;
+    }
+
+    public int getReductionMinDepth() {
+        return reductionMinDepth;
+    }
+
+    public boolean isFutilityPruning() {
+        return futilityPruning;
+    }
+
+    public int getFutilityMargin() {
+        return futilityMargin;
+    }
+
+    public int getThreatExtensions() {
+        return threatExtensions;
+    }
+}
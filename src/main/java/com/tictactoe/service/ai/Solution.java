@@ -0,0 +1,65 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+// What the proof-number solver proved about a position, for the player to move
+public class Solution {
+    public enum Outcome {
+        WIN,
+        LOSS,
+        DRAW,
+        // The node limit ran out before anything was proved
+        UNKNOWN
+    }
+
+    private final Outcome outcome;
+    private final Move move;
+    private final List<Move> line;
+    private final long nodes;
+
+    /**
+     * @param outcome the proved result for the player to move
+     * @param move    the winning move, or null unless the outcome is a win
+     * @param line    a proving line from the position, empty for a draw or an unknown result
+     * @param nodes   the nodes searched, 0 for a position proved before
+     */
+    public Solution(Outcome outcome, Move move, List<Move> line, long nodes) {
+        this.outcome = outcome;
+        this.move = move;
+        this.line = line;
+        this.nodes = nodes;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public Move getMove() {
+        return move;
+    }
+
+    public List<Move> getLine() {
+        return line;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public boolean isProved() {
+        return outcome != Outcome.UNKNOWN;
+    }
+
+    // The same solution with every move transformed, e.g. between symmetric positions
+    public Solution map(UnaryOperator<Move> transform, long nodes) {
+        List<Move> mapped = new ArrayList<>(line.size());
+        for (Move lineMove : line) {
+            mapped.add(transform.apply(lineMove));
+        }
+        return new Solution(outcome, move == null ? null : transform.apply(move), mapped, nodes);
+    }
+}
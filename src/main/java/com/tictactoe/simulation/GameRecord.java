@@ -0,0 +1,104 @@
+package com.tictactoe.simulation;
+
+import com.tictactoe.model.GameState;
+
+/**
+ * A finished self-play game. Records are stored one per line as tab-separated
+ * fields: X player, O player, result, number of random opening plies, and the
+ * move list with each cell index encoded as two base-64 characters.
+ */
+public class GameRecord {
+    private static final String ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_";
+
+    private final String xPlayer;
+    private final String oPlayer;
+    private final GameState result;
+    private final int openingPlies;
+    private final int[] moves;
+
+    // Search totals per side (0 = X, 1 = O), not part of the encoded line
+    private final long[] nodes = new long[2];
+    private final long[] nanos = new long[2];
+    private final int[] searchedMoves = new int[2];
+
+    public GameRecord(String xPlayer, String oPlayer, GameState result, int openingPlies, int[] moves) {
+        this.xPlayer = xPlayer;
+        this.oPlayer = oPlayer;
+        this.result = result;
+        this.openingPlies = openingPlies;
+        this.moves = moves;
+    }
+
+    public String getXPlayer() {
+        return xPlayer;
+    }
+
+    public String getOPlayer() {
+        return oPlayer;
+    }
+
+    public GameState getResult() {
+        return result;
+    }
+
+    public int getOpeningPlies() {
+        return openingPlies;
+    }
+
+    public int[] getMoves() {
+        return moves;
+    }
+
+    public long getNodes(int side) {
+        return nodes[side];
+    }
+
+    public long getNanos(int side) {
+        return nanos[side];
+    }
+
+    public int getSearchedMoves(int side) {
+        return searchedMoves[side];
+    }
+
+    public void addSearchTotals(int side, long sideNodes, long sideNanos, int sideSearchedMoves) {
+        nodes[side] += sideNodes;
+        nanos[side] += sideNanos;
+        searchedMoves[side] += sideSearchedMoves;
+    }
+
+    public String encode() {
+        StringBuilder line = new StringBuilder(32 + moves.length * 2);
+        line.append(xPlayer).append('\t')
+                .append(oPlayer).append('\t')
+                .append(result).append('\t')
+                .append(openingPlies).append('\t');
+        for (int move : moves) {
+            line.append(ALPHABET.charAt(move >> 6)).append(ALPHABET.charAt(move & 63));
+        }
+        return line.toString();
+    }
+
+    public static GameRecord decode(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 5 || fields[4].length() % 2 != 0) {
+            throw new IllegalArgumentException("Malformed game record: " + line);
+        }
+
+        String encodedMoves = fields[4];
+        int[] moves = new int[encodedMoves.length() / 2];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = (decodeChar(encodedMoves.charAt(2 * i)) << 6) | decodeChar(encodedMoves.charAt(2 * i + 1));
+        }
+        return new GameRecord(fields[0], fields[1], GameState.valueOf(fields[2]), Integer.parseInt(fields[3]), moves);
+    }
+
+    private static int decodeChar(char c) {
+        int value = ALPHABET.indexOf(c);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid move character: " + c);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,216 @@
+package com.tictactoe.simulation;
+
+import com.tictactoe.model.Board;
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import com.tictactoe.model.Move;
+import com.tictactoe.service.GameService;
+import com.tictactoe.service.ai.AIPlayer;
+import com.tictactoe.service.ai.AIPlayerFactory;
+import com.tictactoe.service.ai.SearchLimits;
+import com.tictactoe.service.ai.SearchStatistics;
+import com.tictactoe.service.ai.SelectiveSearch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plays AI-vs-AI games in parallel without Redis or HTTP, writing one
+ * {@link GameRecord} per line and logging aggregate statistics.
+ * Run with {@code --spring.profiles.active=selfplay}.
+ */
+@Component
+@Profile("selfplay")
+public class SelfPlayRunner implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SelfPlayRunner.class);
+    // Random opening moves are played within this many cells of the center
+    private static final int OPENING_RADIUS = 3;
+
+    private final AIPlayerFactory aiPlayerFactory;
+    private final GameService gameService;
+
+    @Value("${game.selfplay.games}")
+    private int games;
+
+    @Value("${game.selfplay.threads}")
+    private int threads;
+
+    @Value("${game.selfplay.x.difficulty}")
+    private String xDifficulty;
+
+    @Value("${game.selfplay.o.difficulty}")
+    private String oDifficulty;
+
+    @Value("${game.selfplay.x.node-limit}")
+    private long xNodeLimit;
+
+    @Value("${game.selfplay.o.node-limit}")
+    private long oNodeLimit;
+
+    @Value("${game.selfplay.x.selective-search}")
+    private boolean xSelectiveSearch;
+
+    @Value("${game.selfplay.o.selective-search}")
+    private boolean oSelectiveSearch;
+
+    @Value("${game.selfplay.max-depth}")
+    private int maxDepth;
+
+    @Value("${game.selfplay.time-limit-ms}")
+    private long timeLimitMs;
+
+    @Value("${game.selfplay.random-opening-plies}")
+    private int randomOpeningPlies;
+
+    @Value("${game.selfplay.production-engine}")
+    private boolean productionEngine;
+
+    @Value("${game.selfplay.output}")
+    private String output;
+
+    @Autowired
+    public SelfPlayRunner(AIPlayerFactory aiPlayerFactory, GameService gameService) {
+        this.aiPlayerFactory = aiPlayerFactory;
+        this.gameService = gameService;
+    }
+
+    @Override
+    public void run(String... args) throws IOException, InterruptedException, ExecutionException {
+        int boxCells = openingBox(new Game("X", xDifficulty).getBoard()).size();
+        if (randomOpeningPlies < 0 || randomOpeningPlies > boxCells) {
+            throw new IllegalArgumentException("game.selfplay.random-opening-plies must be between 0 and "
+                    + boxCells + ", got " + randomOpeningPlies);
+        }
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        logger.info("Starting self-play: {} games of {} (X) vs {} (O) on {} threads",
+                games, xDifficulty, oDifficulty, poolSize);
+        if (productionEngine) {
+            logger.info("Moves are made as in a real game, with the solver and the best-move cache. "
+                    + "Search limits, selective search settings and node counts do not apply");
+        } else {
+            logger.info("Moves are searched within the configured limits, without the solver "
+                    + "and the best-move cache a real game also uses");
+        }
+
+        // A side without selective search plays full width, the other uses the configured techniques
+        SearchLimits xLimits = new SearchLimits(maxDepth, timeLimitMs, xNodeLimit,
+                xSelectiveSearch ? null : SelectiveSearch.none());
+        SearchLimits oLimits = new SearchLimits(maxDepth, timeLimitMs, oNodeLimit,
+                oSelectiveSearch ? null : SelectiveSearch.none());
+        SelfPlayStatistics statistics = new SelfPlayStatistics();
+
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        CompletionService<GameRecord> completionService = new ExecutorCompletionService<>(executor);
+        long start = System.nanoTime();
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(output))) {
+            for (int i = 0; i < games; i++) {
+                completionService.submit(() -> playGame(xLimits, oLimits));
+            }
+
+            // Records are written in completion order by this thread only
+            for (int i = 0; i < games; i++) {
+                GameRecord record = completionService.take().get();
+                writer.write(record.encode());
+                writer.newLine();
+                statistics.add(record);
+                if (statistics.getGames() % 100 == 0) {
+                    logger.info("Finished {} of {} games", statistics.getGames(), games);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Self-play finished in {} s, records written to {}\n{}",
+                (System.nanoTime() - start) / 1_000_000_000, output, statistics.summary(xDifficulty, oDifficulty));
+    }
+
+    private GameRecord playGame(SearchLimits xLimits, SearchLimits oLimits) {
+        Game game = new Game("X", xDifficulty);
+        Board board = game.getBoard();
+        AIPlayer xPlayer = aiPlayerFactory.createAIPlayer(xDifficulty);
+        AIPlayer oPlayer = aiPlayerFactory.createAIPlayer(oDifficulty);
+
+        long[] nodes = new long[2];
+        long[] nanos = new long[2];
+        int[] searchedMoves = new int[2];
+        int plies = 0;
+
+        while (game.getGameState() == GameState.IN_PROGRESS) {
+            String symbol = game.getCurrentPlayer().getSymbol();
+            int side = "X".equals(symbol) ? 0 : 1;
+            Move move;
+
+            if (plies < randomOpeningPlies) {
+                // Random opening plies near the center keep the games from repeating
+                move = randomOpeningMove(board);
+            } else {
+                SearchStatistics searchStatistics = new SearchStatistics();
+                long moveStart = System.nanoTime();
+                AIPlayer player = side == 0 ? xPlayer : oPlayer;
+                move = productionEngine
+                        ? player.makeMove(game)
+                        : player.makeMove(game, side == 0 ? xLimits : oLimits, searchStatistics);
+                nodes[side] += searchStatistics.getNodes();
+                nanos[side] += System.nanoTime() - moveStart;
+                searchedMoves[side]++;
+            }
+
+            game.playMove(move.getRow(), move.getCol());
+            plies++;
+            gameService.updateGameState(game, move.getRow(), move.getCol());
+            if (game.getGameState() == GameState.IN_PROGRESS) {
+                game.switchPlayer();
+            }
+        }
+
+        GameRecord record = new GameRecord(xDifficulty, oDifficulty, game.getGameState(),
+                Math.min(plies, randomOpeningPlies), game.getMoves());
+        for (int side = 0; side < 2; side++) {
+            record.addSearchTotals(side, nodes[side], nanos[side], searchedMoves[side]);
+        }
+        return record;
+    }
+
+    private Move randomOpeningMove(Board board) {
+        List<Move> emptyCells = new ArrayList<>();
+        for (Move move : openingBox(board)) {
+            if (board.getCell(move.getRow(), move.getCol()).isEmpty()) {
+                emptyCells.add(move);
+            }
+        }
+        return emptyCells.get(ThreadLocalRandom.current().nextInt(emptyCells.size()));
+    }
+
+    // The cells near the center, clipped to the board
+    private static List<Move> openingBox(Board board) {
+        int center = board.getSize() / 2;
+        int from = Math.max(0, center - OPENING_RADIUS);
+        int to = Math.min(board.getSize() - 1, center + OPENING_RADIUS);
+        List<Move> cells = new ArrayList<>();
+        for (int row = from; row <= to; row++) {
+            for (int col = from; col <= to; col++) {
+                cells.add(new Move(row, col));
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,53 @@
+package com.tictactoe.simulation;
+
+import com.tictactoe.model.GameState;
+
+public class SelfPlayStatistics {
+    private static final String[] SIDES = {"X", "O"};
+
+    private int games;
+    private int draws;
+    private long totalPlies;
+    private final int[] wins = new int[2];
+    private final long[] nodes = new long[2];
+    private final long[] nanos = new long[2];
+    private final long[] searchedMoves = new long[2];
+
+    public synchronized void add(GameRecord record) {
+        games++;
+        totalPlies += record.getMoves().length;
+        if (record.getResult() == GameState.X_WON) {
+            wins[0]++;
+        } else if (record.getResult() == GameState.O_WON) {
+            wins[1]++;
+        } else {
+            draws++;
+        }
+        for (int side = 0; side < 2; side++) {
+            nodes[side] += record.getNodes(side);
+            nanos[side] += record.getNanos(side);
+            searchedMoves[side] += record.getSearchedMoves(side);
+        }
+    }
+
+    public synchronized int getGames() {
+        return games;
+    }
+
+    public synchronized String summary(String xPlayer, String oPlayer) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("games=%d draws=%.1f%% avgLength=%.1f plies%n",
+                games, percent(draws), games == 0 ? 0.0 : (double) totalPlies / games));
+        for (int side = 0; side < 2; side++) {
+            long moves = Math.max(1, searchedMoves[side]);
+            summary.append(String.format("%s (%s): wins=%.1f%% nodes/move=%d time/move=%.2f ms%n",
+                    SIDES[side], side == 0 ? xPlayer : oPlayer, percent(wins[side]),
+                    nodes[side] / moves, nanos[side] / (double) moves / 1_000_000));
+        }
+        return summary.toString();
+    }
+
+    private double percent(int count) {
+        return games == 0 ? 0.0 : 100.0 * count / games;
+    }
+}
@@ -0,0 +1,261 @@
+package com.tictactoe.simulation;
+
+import com.tictactoe.model.Board;
+import com.tictactoe.model.GameState;
+import com.tictactoe.service.ai.EvaluationWeights;
+import com.tictactoe.service.ai.PatternCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Fits the evaluation weights to self-play records with Texel's method: the
+ * evaluation of each recorded position is mapped to an expected score with a
+ * logistic curve, and the weights are adjusted one at a time while the mean
+ * squared error against the actual game results keeps falling.
+ * Run with {@code --spring.profiles.active=tune}.
+ */
+@Component
+@Profile("tune")
+public class WeightTuner implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(WeightTuner.class);
+    private static final int BOARD_SIZE = 20;
+    private static final int FEATURES = 2 * EvaluationWeights.PATTERNS;
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    private final EvaluationWeights initialWeights;
+
+    @Value("${game.tune.input}")
+    private String input;
+
+    @Value("${game.tune.output}")
+    private String output;
+
+    @Value("${game.tune.max-iterations}")
+    private int maxIterations;
+
+    @Value("${game.tune.parallelism}")
+    private int parallelism;
+
+    public WeightTuner(EvaluationWeights initialWeights) {
+        this.initialWeights = initialWeights;
+    }
+
+    @Override
+    public void run(String... args) throws IOException {
+        // A first pass counts the positions, so the second fills arrays of the right size without boxing
+        long count;
+        try (Stream<String> lines = records()) {
+            count = lines.map(GameRecord::decode).mapToLong(WeightTuner::positionsIn).sum();
+        }
+        if (count * FEATURES > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException(count + " positions in " + input + " are too many to tune on at once");
+        }
+
+        Positions positions = new Positions((int) count);
+        try (Stream<String> lines = records()) {
+            lines.map(GameRecord::decode).forEach(record -> extractPositions(record, positions));
+        }
+        logger.info("Loaded {} positions from {}", positions.size(), input);
+        if (positions.size() == 0) {
+            throw new IllegalStateException("No positions to tune on in " + input);
+        }
+
+        ForkJoinPool pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        try {
+            EvaluationWeights tuned = tune(pool, positions);
+            tuned.save(Path.of(output));
+            logger.info("Tuned weights written to {}: {}", output, tuned);
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private Stream<String> records() throws IOException {
+        return Files.lines(Path.of(input)).filter(line -> !line.isBlank());
+    }
+
+    // Opening plies were random, so they say nothing about the evaluation
+    private static long positionsIn(GameRecord record) {
+        return Math.max(0, record.getMoves().length - record.getOpeningPlies());
+    }
+
+    private void extractPositions(GameRecord record, Positions positions) {
+        Board board = new Board(BOARD_SIZE);
+        int[] moves = record.getMoves();
+        int[][] counts = new int[2][EvaluationWeights.PATTERNS];
+
+        for (int ply = 0; ply < moves.length; ply++) {
+            String toMove = ply % 2 == 0 ? "X" : "O";
+
+            if (ply >= record.getOpeningPlies()) {
+                PatternCounter.count(board, toMove, counts);
+                positions.add(counts, resultFor(record.getResult(), toMove));
+            }
+
+            board.makeMove(moves[ply] / BOARD_SIZE, moves[ply] % BOARD_SIZE, toMove);
+        }
+    }
+
+    private double resultFor(GameState result, String symbol) {
+        if (result == GameState.X_WON) {
+            return "X".equals(symbol) ? 1.0 : 0.0;
+        }
+        if (result == GameState.O_WON) {
+            return "O".equals(symbol) ? 1.0 : 0.0;
+        }
+        return 0.5;
+    }
+
+    private EvaluationWeights tune(ForkJoinPool pool, Positions positions) {
+        int[] weights = new int[FEATURES];
+        System.arraycopy(initialWeights.getToMove(), 0, weights, 0, EvaluationWeights.PATTERNS);
+        System.arraycopy(initialWeights.getWaiting(), 0, weights, EvaluationWeights.PATTERNS, EvaluationWeights.PATTERNS);
+
+        double scale = fitScale(pool, positions, weights);
+        double bestError = error(pool, positions, weights, scale);
+        logger.info("Logistic scale {} gives initial error {}", scale, bestError);
+
+        // Multiplicative steps, since the weights span several orders of magnitude
+        double step = 0.5;
+        for (int iteration = 1; iteration <= maxIterations && step >= 0.01; iteration++) {
+            boolean improved = false;
+            for (int i = 0; i < FEATURES; i++) {
+                // Empty windows count equally for both sides, so their weights stay fixed
+                if (i % EvaluationWeights.PATTERNS == 0) {
+                    continue;
+                }
+                for (double factor : new double[]{1 + step, 1 / (1 + step)}) {
+                    int previous = weights[i];
+                    int candidate = (int) Math.round(previous * factor);
+                    candidate = Math.max(1, Math.min(EvaluationWeights.MAX_WEIGHT, candidate));
+                    if (candidate == previous) {
+                        continue;
+                    }
+
+                    weights[i] = candidate;
+                    double candidateError = error(pool, positions, weights, scale);
+                    if (candidateError < bestError) {
+                        bestError = candidateError;
+                        improved = true;
+                        break;
+                    }
+                    weights[i] = previous;
+                }
+            }
+
+            logger.info("Iteration {}: error {} step {}", iteration, bestError, step);
+            if (!improved) {
+                step /= 2;
+            }
+        }
+
+        int[] toMove = new int[EvaluationWeights.PATTERNS];
+        int[] waiting = new int[EvaluationWeights.PATTERNS];
+        System.arraycopy(weights, 0, toMove, 0, EvaluationWeights.PATTERNS);
+        System.arraycopy(weights, EvaluationWeights.PATTERNS, waiting, 0, EvaluationWeights.PATTERNS);
+        return new EvaluationWeights(toMove, waiting);
+    }
+
+    private double fitScale(ForkJoinPool pool, Positions positions, int[] weights) {
+        // Ternary search on the logarithm of the scale, the error is unimodal in it
+        double low = -12;
+        double high = 0;
+        for (int i = 0; i < 40; i++) {
+            double first = low + (high - low) / 3;
+            double second = high - (high - low) / 3;
+            if (error(pool, positions, weights, Math.pow(10, first))
+                    < error(pool, positions, weights, Math.pow(10, second))) {
+                high = second;
+            } else {
+                low = first;
+            }
+        }
+        return Math.pow(10, (low + high) / 2);
+    }
+
+    private double error(ForkJoinPool pool, Positions positions, int[] weights, double scale) {
+        double sum = pool.invoke(new ErrorTask(positions, weights.clone(), scale, 0, positions.size()));
+        return sum / positions.size();
+    }
+
+    // The features of all positions in one flat array, FEATURES values per position
+    private static final class Positions {
+        private final int[] features;
+        private final double[] results;
+        private int size;
+
+        private Positions(int capacity) {
+            this.features = new int[capacity * FEATURES];
+            this.results = new double[capacity];
+        }
+
+        private void add(int[][] counts, double result) {
+            int offset = size * FEATURES;
+            System.arraycopy(counts[0], 0, features, offset, EvaluationWeights.PATTERNS);
+            System.arraycopy(counts[1], 0, features, offset + EvaluationWeights.PATTERNS, EvaluationWeights.PATTERNS);
+            results[size++] = result;
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+
+    // Never serialized, the task only lives inside the fork-join pool
+    @SuppressWarnings("serial")
+    private static final class ErrorTask extends RecursiveTask<Double> {
+        private final Positions positions;
+        private final int[] weights;
+        private final double scale;
+        private final int from;
+        private final int to;
+
+        private ErrorTask(Positions positions, int[] weights, double scale, int from, int to) {
+            this.positions = positions;
+            this.weights = weights;
+            this.scale = scale;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    int[] features = positions.features;
+                    int offset = i * FEATURES;
+                    long evaluation = 0;
+                    for (int k = 0; k < EvaluationWeights.PATTERNS; k++) {
+                        evaluation += (long) weights[k] * features[offset + k]
+                                - (long) weights[k + EvaluationWeights.PATTERNS]
+                                * features[offset + k + EvaluationWeights.PATTERNS];
+                    }
+                    double expected = 1.0 / (1.0 + Math.exp(-scale * evaluation));
+                    double difference = positions.results[i] - expected;
+                    sum += difference * difference;
+                }
+                return sum;
+            }
+
+            int middle = (from + to) >>> 1;
+            ErrorTask left = new ErrorTask(positions, weights, scale, from, middle);
+            left.fork();
+            double right = new ErrorTask(positions, weights, scale, middle, to).compute();
+            return left.join() + right;
+        }
+    }
+}
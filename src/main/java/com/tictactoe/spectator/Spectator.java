@@ -0,0 +1,79 @@
+package com.tictactoe.spectator;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One connected viewer. Updates are coalesced: while a send is in progress,
+ * newer states replace the pending one, so a slow viewer only ever receives
+ * the latest state and never builds up a backlog.
+ */
+class Spectator {
+    private final SseEmitter emitter;
+    private final AtomicReference<Map<String, Object>> pending = new AtomicReference<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private boolean updated;
+
+    Spectator(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    void offer(Map<String, Object> state, Executor executor) {
+        synchronized (this) {
+            updated = true;
+            pending.set(state);
+        }
+        drainOn(executor);
+    }
+
+    // The state read when the viewer joined, older than any update that has arrived since
+    void offerInitial(Map<String, Object> state, Executor executor) {
+        synchronized (this) {
+            if (updated) {
+                return;
+            }
+            pending.set(state);
+        }
+        drainOn(executor);
+    }
+
+    private void drainOn(Executor executor) {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Map<String, Object> state = pending.getAndSet(null);
+                if (state == null) {
+                    draining.set(false);
+                    // An update may have arrived after the last take, drain it unless another task already does
+                    if (pending.get() == null || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                emitter.send(SseEmitter.event().name("state").data(state));
+                if (!"IN_PROGRESS".equals(state.get("gameState"))) {
+                    emitter.complete();
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The viewer disconnected, the emitter callbacks remove it from the hub
+            emitter.completeWithError(e);
+        }
+    }
+}
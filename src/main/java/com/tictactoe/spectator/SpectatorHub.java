@@ -0,0 +1,148 @@
+package com.tictactoe.spectator;
+
+import com.tictactoe.controller.GameResponseMapper;
+import com.tictactoe.model.Game;
+import com.tictactoe.repository.GameSavedEvent;
+import com.tictactoe.repository.RedisGameRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Fans game updates out to the spectators connected to this node. The node
+ * subscribes to a game's Redis update channel once, when its first local
+ * spectator joins, and unsubscribes when the last one leaves, so Redis traffic
+ * grows with the number of nodes rather than the number of viewers. Games kept
+ * by the in-memory store are delivered from their save on this node instead.
+ */
+@Component
+public class SpectatorHub {
+    private static final Logger logger = LoggerFactory.getLogger(SpectatorHub.class);
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final RedisSerializer<Game> gameSerializer;
+    private final boolean redisUpdates;
+    private final GameResponseMapper responseMapper;
+    private final ExecutorService sendExecutor;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    @Value("${game.spectator.timeout-ms}")
+    private long timeoutMs;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public SpectatorHub(RedisMessageListenerContainer listenerContainer, RedisTemplate<String, Game> redisTemplate,
+                        GameResponseMapper responseMapper, @Value("${game.spectator.send-threads}") int sendThreads,
+                        @Value("${game.store.type}") String storeType) {
+        this.listenerContainer = listenerContainer;
+        // Updates are published with the value serializer games are stored with
+        this.gameSerializer = (RedisSerializer<Game>) redisTemplate.getValueSerializer();
+        this.redisUpdates = storeType.equals("redis");
+        this.responseMapper = responseMapper;
+        this.sendExecutor = Executors.newFixedThreadPool(sendThreads);
+    }
+
+    /**
+     * Connects a viewer to the game. The update listener is registered before the
+     * current state is read, so a move saved in between still reaches the viewer.
+     */
+    public SseEmitter watch(String gameId, Supplier<Game> currentState) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Spectator spectator = new Spectator(emitter);
+
+        subscriptions.compute(gameId, (id, subscription) -> {
+            if (subscription == null) {
+                subscription = new Subscription(id);
+                if (redisUpdates) {
+                    listenerContainer.addMessageListener(subscription, subscription.topic);
+                    logger.debug("Subscribed to updates of game {}", id);
+                }
+            }
+            subscription.spectators.add(spectator);
+            return subscription;
+        });
+
+        Game game;
+        try {
+            game = currentState.get();
+        } catch (RuntimeException e) {
+            leave(gameId, spectator);
+            throw e;
+        }
+
+        emitter.onCompletion(() -> leave(gameId, spectator));
+        emitter.onTimeout(() -> leave(gameId, spectator));
+        emitter.onError(e -> leave(gameId, spectator));
+
+        // Start the viewer from the current state instead of waiting for the next move
+        spectator.offerInitial(responseMapper.toResponse(game), sendExecutor);
+        return emitter;
+    }
+
+    private void leave(String gameId, Spectator spectator) {
+        subscriptions.computeIfPresent(gameId, (id, subscription) -> {
+            subscription.spectators.remove(spectator);
+            if (!subscription.spectators.isEmpty()) {
+                return subscription;
+            }
+            if (redisUpdates) {
+                listenerContainer.removeMessageListener(subscription, subscription.topic);
+                logger.debug("Unsubscribed from updates of game {}", id);
+            }
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        sendExecutor.shutdown();
+    }
+
+    @EventListener
+    public void onGameSaved(GameSavedEvent event) {
+        Subscription subscription = subscriptions.get(event.getGame().getId());
+        if (subscription != null) {
+            subscription.deliver(event.getGame());
+        }
+    }
+
+    private final class Subscription implements MessageListener {
+        private final ChannelTopic topic;
+        private final Set<Spectator> spectators = ConcurrentHashMap.newKeySet();
+
+        private Subscription(String gameId) {
+            this.topic = new ChannelTopic(RedisGameRepository.updateChannel(gameId));
+        }
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            deliver(gameSerializer.deserialize(message.getBody()));
+        }
+
+        // Map once per node, then hand the same state to every local viewer
+        private void deliver(Game game) {
+            Map<String, Object> state = responseMapper.toResponse(game);
+            for (Spectator spectator : spectators) {
+                spectator.offer(state, sendExecutor);
+            }
+        }
+    }
+}
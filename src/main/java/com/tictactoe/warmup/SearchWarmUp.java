@@ -0,0 +1,144 @@
+package com.tictactoe.warmup;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import com.tictactoe.repository.GameRepository;
+import com.tictactoe.service.GameService;
+import com.tictactoe.service.ai.HardAIPlayer;
+import com.tictactoe.service.ai.SearchLimits;
+import com.tictactoe.service.ai.SearchStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Runs the hard AI search and the game codec over a fixed set of positions after
+ * startup, so the JIT has compiled the hot paths before real games arrive. Rounds
+ * repeat until a round triggers almost no new compilation or the time budget runs
+ * out. Searches use explicit limits, so they never touch the shared move cache.
+ */
+@Component
+@ConditionalOnProperty(name = "game.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchWarmUp {
+    private static final Logger logger = LoggerFactory.getLogger(SearchWarmUp.class);
+    private static final int POSITION_COUNT = 8;
+    private static final int CENTER_SPREAD = 8;
+
+    private final HardAIPlayer hardAIPlayer;
+    private final GameService gameService;
+    private final GameRepository gameRepository;
+    private volatile boolean complete;
+
+    @Value("${game.warmup.max-duration-ms}")
+    private long maxDurationMs;
+
+    @Value("${game.warmup.stable-compile-ms}")
+    private long stableCompileMs;
+
+    @Value("${game.warmup.node-limit}")
+    private long nodeLimit;
+
+    @Autowired
+    public SearchWarmUp(HardAIPlayer hardAIPlayer, GameService gameService, GameRepository gameRepository) {
+        this.hardAIPlayer = hardAIPlayer;
+        this.gameService = gameService;
+        this.gameRepository = gameRepository;
+    }
+
+    // Runs off the startup thread, so liveness is reported while readiness waits for the warm-up
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::run, "search-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private void run() {
+        long start = System.currentTimeMillis();
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean monitored = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        SearchLimits limits = new SearchLimits(4, 0, nodeLimit);
+
+        try {
+            List<Game> positions = cannedPositions();
+            int rounds = 0;
+            boolean encoding = true;
+            long compileTime = monitored ? compiler.getTotalCompilationTime() : 0;
+            while (System.currentTimeMillis() - start < maxDurationMs) {
+                for (Game game : positions) {
+                    hardAIPlayer.makeMove(game, limits, new SearchStatistics());
+                    encoding = encoding && encode(game);
+                }
+                rounds++;
+
+                if (monitored) {
+                    long total = compiler.getTotalCompilationTime();
+                    if (rounds > 1 && total - compileTime < stableCompileMs) {
+                        break;
+                    }
+                    compileTime = total;
+                }
+            }
+            logger.info("Warm-up finished after {} rounds in {} ms", rounds, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // A cold node is still better than one that never becomes ready
+            logger.error("Warm-up failed, accepting traffic without it", e);
+        } finally {
+            complete = true;
+        }
+    }
+
+    // A codec that cannot encode must not cut the search warm-up short, so its failure is only logged once
+    private boolean encode(Game game) {
+        try {
+            gameRepository.encode(game);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up could not encode a game, warming up the search only", e);
+            return false;
+        }
+    }
+
+    // Mid-game positions from random play around the center, the same on every start
+    private List<Game> cannedPositions() {
+        List<Game> positions = new ArrayList<>(POSITION_COUNT);
+        for (int seed = 1; seed <= POSITION_COUNT; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            Game game = new Game("X", "hard");
+            int size = game.getBoard().getSize();
+            int offset = (size - CENTER_SPREAD) / 2;
+            int plies = 4 + 3 * seed;
+            while (game.getMoveCount() < plies) {
+                int row = offset + random.nextInt(CENTER_SPREAD);
+                int col = offset + random.nextInt(CENTER_SPREAD);
+                if (!game.playMove(row, col)) {
+                    continue;
+                }
+                gameService.updateGameState(game, row, col);
+                if (game.getGameState() != GameState.IN_PROGRESS) {
+                    break;
+                }
+                game.switchPlayer();
+            }
+            if (game.getGameState() == GameState.IN_PROGRESS) {
+                positions.add(game);
+            }
+        }
+        return positions;
+    }
+}
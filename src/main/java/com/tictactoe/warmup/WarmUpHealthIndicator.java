@@ -0,0 +1,30 @@
+package com.tictactoe.warmup;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Part of the readiness group, so the node only receives games once the search code is compiled.
+// Always registered, a node with warm-up disabled is ready at once.
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+    private final SearchWarmUp searchWarmUp;
+
+    @Autowired
+    public WarmUpHealthIndicator(ObjectProvider<SearchWarmUp> searchWarmUp) {
+        this.searchWarmUp = searchWarmUp.getIfAvailable();
+    }
+
+    @Override
+    public Health health() {
+        if (searchWarmUp == null) {
+            return Health.up().withDetail("reason", "Search warm-up disabled").build();
+        }
+        if (searchWarmUp.isComplete()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("reason", "Search warm-up in progress").build();
+    }
+}
@@ -0,0 +1,246 @@
+package com.tictactoe.matchmaking;
+
+import com.tictactoe.matchmaking.MatchTicket.State;
+import com.tictactoe.repository.MatchmakingRepository;
+import com.tictactoe.service.GameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MatchmakingServiceTest {
+    private GameService gameService;
+    private MatchmakingRepository matchmakingRepository;
+
+    @BeforeEach
+    void setUp() {
+        gameService = mock(GameService.class);
+        matchmakingRepository = mock(MatchmakingRepository.class);
+    }
+
+    @Test
+    void pairsTwoWaitingPlayersIntoOneGame() {
+        MatchmakingService service = service(false);
+        MatchTicket first = service.join("hard");
+        MatchTicket second = service.join("hard");
+
+        service.matchWaitingPlayers();
+
+        assertEquals(State.MATCHED, first.getState());
+        assertEquals(State.MATCHED, second.getState());
+        assertEquals(first.getGameId(), second.getGameId());
+        assertNotEquals(first.getSymbol(), second.getSymbol());
+        verify(gameService, times(1)).createVersusGame(first.getGameId());
+    }
+
+    @Test
+    void playersInDifferentBucketsAreNotPaired() {
+        MatchmakingService service = service(false);
+        MatchTicket easy = service.join("easy");
+        MatchTicket hard = service.join("hard");
+
+        service.matchWaitingPlayers();
+
+        assertEquals(State.WAITING, easy.getState());
+        assertEquals(State.WAITING, hard.getState());
+        verify(gameService, never()).createVersusGame(anyString());
+    }
+
+    @Test
+    void aCancelledTicketIsNotMatched() {
+        MatchmakingService service = service(false);
+        MatchTicket cancelled = service.join("hard");
+        MatchTicket waiting = service.join("hard");
+
+        assertTrue(service.cancel(cancelled));
+        service.matchWaitingPlayers();
+
+        assertEquals(State.CANCELLED, cancelled.getState());
+        assertEquals(State.WAITING, waiting.getState());
+        assertNull(cancelled.getGameId());
+    }
+
+    @Test
+    void aCancelRacingTheTickEitherCancelsOrMatches() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 200; round++) {
+                MatchmakingService service = service(false);
+                MatchTicket cancelling = service.join("hard");
+                MatchTicket other = service.join("hard");
+                CyclicBarrier start = new CyclicBarrier(2);
+
+                CompletableFuture<Boolean> cancel = CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return service.cancel(cancelling);
+                }, executor);
+                CompletableFuture<Void> tick = CompletableFuture.runAsync(() -> {
+                    await(start);
+                    service.matchWaitingPlayers();
+                }, executor);
+                tick.get();
+
+                if (cancel.get()) {
+                    assertEquals(State.CANCELLED, cancelling.getState());
+                    assertEquals(State.WAITING, other.getState());
+                } else {
+                    assertEquals(State.MATCHED, cancelling.getState());
+                    assertEquals(cancelling.getGameId(), other.getGameId());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentJoinsNeverCreateMoreBucketsThanTheCap() throws Exception {
+        MatchmakingService service = service(false);
+        ReflectionTestUtils.setField(service, "maxBuckets", 3);
+        int joins = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(joins);
+        try {
+            CyclicBarrier start = new CyclicBarrier(joins);
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < joins; i++) {
+                String bucket = "bucket-" + i;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    try {
+                        service.join(bucket);
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }, executor));
+            }
+
+            int joined = 0;
+            for (CompletableFuture<Boolean> result : results) {
+                joined += result.get() ? 1 : 0;
+            }
+            assertEquals(3, joined);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aFullBucketCapStillAcceptsJoinsToExistingBuckets() {
+        MatchmakingService service = service(false);
+        ReflectionTestUtils.setField(service, "maxBuckets", 1);
+        service.join("hard");
+
+        assertThrows(IllegalArgumentException.class, () -> service.join("easy"));
+        assertEquals(State.WAITING, service.join("hard").getState());
+    }
+
+    @Test
+    void aLeftoverTicketIsPublishedWhenNoOtherNodeHasOne() {
+        MatchmakingService service = service(true);
+        MatchTicket ticket = service.join("hard");
+
+        service.matchWaitingPlayers();
+
+        assertEquals(State.PUBLISHED, ticket.getState());
+        verify(gameService, never()).createVersusGame(anyString());
+
+        when(matchmakingRepository.findResult(ticket.getId())).thenReturn(Optional.of("game-1:O"));
+        assertEquals(State.MATCHED, service.findTicket(ticket.getId()).orElseThrow().getState());
+        assertEquals("game-1", ticket.getGameId());
+        assertEquals("O", ticket.getSymbol());
+    }
+
+    @Test
+    void aLeftoverTicketClaimsOneWaitingOnAnotherNode() {
+        MatchmakingService service = service(true);
+        MatchTicket ticket = service.join("hard");
+        when(matchmakingRepository.takeOrPublish(eq("hard"), eq(ticket.getId()), any()))
+                .thenReturn("cancelled-remote", "waiting-remote");
+        when(matchmakingRepository.claimResult(eq("waiting-remote"), anyString(), any())).thenReturn(true);
+
+        service.matchWaitingPlayers();
+
+        assertEquals(State.MATCHED, ticket.getState());
+        // The game created for the cancelled ticket is reused for the next one
+        verify(gameService, times(1)).createVersusGame(ticket.getGameId());
+        verify(gameService, never()).discardVersusGame(anyString());
+        String otherSymbol = ticket.getSymbol().equals("X") ? "O" : "X";
+        verify(matchmakingRepository).claimResult(eq("waiting-remote"),
+                eq(ticket.getGameId() + ":" + otherSymbol), any());
+    }
+
+    @Test
+    void theGameIsDiscardedWhenNoRemoteTicketCanBeClaimed() {
+        MatchmakingService service = service(true);
+        MatchTicket ticket = service.join("hard");
+        when(matchmakingRepository.takeOrPublish(eq("hard"), eq(ticket.getId()), any())).thenReturn("cancelled-remote");
+
+        service.matchWaitingPlayers();
+
+        assertEquals(State.WAITING, ticket.getState());
+        verify(gameService, times(1)).createVersusGame(anyString());
+        verify(gameService, times(1)).discardVersusGame(anyString());
+    }
+
+    @Test
+    void aPublishedTicketTakenByAnotherNodeCannotBeCancelled() {
+        MatchmakingService service = service(true);
+        MatchTicket ticket = service.join("hard");
+        service.matchWaitingPlayers();
+        when(matchmakingRepository.findResult(ticket.getId())).thenReturn(Optional.of("game-1:X"));
+
+        assertFalse(service.cancel(ticket));
+        assertEquals(State.MATCHED, ticket.getState());
+        verify(matchmakingRepository, never()).removeWaiting(anyString(), anyString());
+    }
+
+    @Test
+    void aPublishedTicketIsCancelledWhenItsResultIsClaimedFirst() {
+        MatchmakingService service = service(true);
+        MatchTicket ticket = service.join("hard");
+        service.matchWaitingPlayers();
+        when(matchmakingRepository.claimResult(eq(ticket.getId()), eq("cancelled"), any())).thenReturn(true);
+
+        assertTrue(service.cancel(ticket));
+        assertEquals(State.CANCELLED, ticket.getState());
+        verify(matchmakingRepository).removeWaiting("hard", ticket.getId());
+    }
+
+    private MatchmakingService service(boolean crossNode) {
+        MatchmakingService service = new MatchmakingService(gameService, matchmakingRepository, 4, crossNode,
+                60_000, 60_000);
+        ReflectionTestUtils.setField(service, "maxBuckets", 16);
+        return service;
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.tictactoe.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardTest {
+
+    @Test
+    void undoRestoresCountersAndHashesAfterEveryMove() {
+        Board board = new Board(20);
+        Random random = new Random(42);
+        Deque<Move> played = new ArrayDeque<>();
+        Deque<Snapshot> before = new ArrayDeque<>();
+
+        for (int ply = 0; ply < 60; ply++) {
+            Move move = randomEmptyCell(board, random);
+            before.push(Snapshot.of(board));
+            assertTrue(board.makeMove(move.getRow(), move.getCol(), ply % 2 == 0 ? "X" : "O"));
+            played.push(move);
+        }
+
+        while (!played.isEmpty()) {
+            Move move = played.pop();
+            assertTrue(board.undoMove(move.getRow(), move.getCol()));
+            before.pop().assertMatches(board);
+        }
+        assertEquals(0, board.getStoneCount());
+    }
+
+    @Test
+    void makeAndUndoRejectInvalidCells() {
+        Board board = new Board(20);
+        assertTrue(board.makeMove(3, 4, "X"));
+        assertFalse(board.makeMove(3, 4, "O"));
+        assertFalse(board.makeMove(20, 0, "O"));
+        assertFalse(board.undoMove(5, 5));
+        assertEquals(1, board.getStoneCount());
+    }
+
+    private static Move randomEmptyCell(Board board, Random random) {
+        // Stay near the center so the windows overlap and both players block each other
+        while (true) {
+            int row = 5 + random.nextInt(10);
+            int col = 5 + random.nextInt(10);
+            if (board.getCell(row, col).isEmpty()) {
+                return new Move(row, col);
+            }
+        }
+    }
+
+    private record Snapshot(int stones, int[] openX, int[] openO, long[] hashes,
+                            boolean xCanWin, boolean oCanWin) {
+
+        static Snapshot of(Board board) {
+            int[] openX = new int[5];
+            int[] openO = new int[5];
+            board.copyOpenWindowCounts("X", openX);
+            board.copyOpenWindowCounts("O", openO);
+            List<Long> hashes = new ArrayList<>();
+            for (Symmetry symmetry : Symmetry.values()) {
+                hashes.add(board.getSymmetryHash(symmetry));
+            }
+            return new Snapshot(board.getStoneCount(), openX, openO,
+                    hashes.stream().mapToLong(Long::longValue).toArray(),
+                    board.canStillWin("X"), board.canStillWin("O"));
+        }
+
+        void assertMatches(Board board) {
+            Snapshot now = of(board);
+            assertEquals(stones, now.stones);
+            assertArrayEquals(openX, now.openX);
+            assertArrayEquals(openO, now.openO);
+            assertArrayEquals(hashes, now.hashes);
+            assertEquals(xCanWin, now.xCanWin);
+            assertEquals(oCanWin, now.oCanWin);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tictactoe.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PositionKeyTest {
+    private static final int SIZE = 20;
+
+    // No rotation or reflection maps this position onto itself
+    private static final List<Move> POSITION = List.of(
+            new Move(9, 9), new Move(9, 10), new Move(10, 12), new Move(7, 8), new Move(12, 5));
+
+    @Test
+    void everySymmetryIsUndoneByItsInverse() {
+        for (Symmetry symmetry : Symmetry.values()) {
+            for (int row = 0; row < SIZE; row++) {
+                for (int col = 0; col < SIZE; col++) {
+                    Move image = symmetry.apply(new Move(row, col), SIZE);
+                    Move back = symmetry.inverse().apply(image, SIZE);
+                    assertEquals(row * SIZE + col, back.getRow() * SIZE + back.getCol(), symmetry.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    void allImagesShareOneKeyAndMapBackToTheirOwnBoard() {
+        Set<Long> keys = new HashSet<>();
+        Set<Symmetry> canonicalTransforms = EnumSet.noneOf(Symmetry.class);
+        Set<Set<Integer>> canonicalPositions = new HashSet<>();
+
+        for (Symmetry image : Symmetry.values()) {
+            Board board = new Board(SIZE);
+            for (int i = 0; i < POSITION.size(); i++) {
+                Move move = image.apply(POSITION.get(i), SIZE);
+                board.makeMove(move.getRow(), move.getCol(), i % 2 == 0 ? "X" : "O");
+            }
+
+            PositionKey positionKey = PositionKey.of(board, "O");
+            keys.add(positionKey.getKey());
+            canonicalTransforms.add(positionKey.getSymmetry());
+
+            Set<Integer> canonical = new HashSet<>();
+            for (int row = 0; row < SIZE; row++) {
+                for (int col = 0; col < SIZE; col++) {
+                    Move move = new Move(row, col);
+                    Move roundTrip = positionKey.fromCanonical(positionKey.toCanonical(move));
+                    assertEquals(row * SIZE + col, roundTrip.getRow() * SIZE + roundTrip.getCol());
+                    if (!board.getCell(row, col).isEmpty()) {
+                        Move mapped = positionKey.toCanonical(move);
+                        canonical.add((mapped.getRow() * SIZE + mapped.getCol()) * 2
+                                + ("X".equals(board.getCell(row, col).getValue()) ? 0 : 1));
+                    }
+                }
+            }
+            canonicalPositions.add(canonical);
+        }
+
+        assertEquals(1, keys.size());
+        // Each image needs a different transform to reach the same canonical board
+        assertEquals(Symmetry.values().length, canonicalTransforms.size());
+        assertEquals(1, canonicalPositions.size());
+    }
+
+    @Test
+    void sideToMoveIsPartOfTheKey() {
+        Board board = new Board(SIZE);
+        board.makeMove(9, 9, "X");
+        assertNotEquals(PositionKey.of(board, "X").getKey(), PositionKey.of(board, "O").getKey());
+    }
+}
@@ -0,0 +1,78 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import org.junit.jupiter.api.Test;
+
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompactGameCodecTest {
+
+    @Test
+    void roundTripsAGameInProgress() {
+        Game game = new Game("O", "hard", "alice");
+        play(game, 9, 9, 9, 10, 10, 10, 8, 8);
+
+        byte[] value = CompactGameCodec.encode(game, 1_000L, 2_000L);
+        Game decoded = CompactGameCodec.decode(game.getId(), value);
+
+        assertEquals(game.getId(), decoded.getId());
+        assertEquals("O", decoded.getHumanPlayer().getSymbol());
+        assertEquals("hard", decoded.getDifficultyLevel());
+        assertEquals("alice", decoded.getPlayerName());
+        assertEquals(game.getBoard().getSize(), decoded.getBoard().getSize());
+        assertEquals(game.getTimeLimit(), decoded.getTimeLimit());
+        assertArrayEquals(game.getMoves(), decoded.getMoves());
+        assertEquals(GameState.IN_PROGRESS, decoded.getGameState());
+        assertEquals(game.getCurrentPlayer().getSymbol(), decoded.getCurrentPlayer().getSymbol());
+        // Times are stored with millisecond precision
+        assertEquals(game.getStartTime().truncatedTo(ChronoUnit.MILLIS), decoded.getStartTime());
+        assertEquals(game.getLastMoveTime().truncatedTo(ChronoUnit.MILLIS), decoded.getLastMoveTime());
+        assertEquals("X", decoded.getBoard().getCell(10, 10).getValue());
+        assertEquals("O", decoded.getBoard().getCell(8, 8).getValue());
+
+        assertEquals(1_000L, CompactGameCodec.expiresAt(value));
+        assertEquals(2_000L, CompactGameCodec.deadline(value));
+        assertEquals(GameState.IN_PROGRESS, CompactGameCodec.state(value));
+    }
+
+    @Test
+    void roundTripsAWonAnonymousGameWithItsWinningSequence() {
+        Game game = new Game("X", "easy");
+        play(game, 5, 5, 6, 5, 5, 6, 6, 6, 5, 7, 6, 7, 5, 8, 6, 8, 5, 9);
+        game.setGameState(GameState.X_WON);
+        game.setWinningSequence(game.getBoard().checkWinningSequence(5, 9, "X"));
+
+        Game decoded = CompactGameCodec.decode(game.getId(), CompactGameCodec.encode(game, 0L, 0L));
+
+        assertNull(decoded.getPlayerName());
+        assertEquals(GameState.X_WON, decoded.getGameState());
+        assertArrayEquals(game.getWinningSequence(), decoded.getWinningSequence());
+    }
+
+    @Test
+    void withDeadlineOnlyChangesTheDeadline() {
+        Game game = new Game("X", "medium");
+        play(game, 9, 9);
+        byte[] value = CompactGameCodec.encode(game, 1_000L, 2_000L);
+
+        byte[] updated = CompactGameCodec.withDeadline(value, 3_000L);
+
+        assertEquals(2_000L, CompactGameCodec.deadline(value));
+        assertEquals(3_000L, CompactGameCodec.deadline(updated));
+        assertEquals(1_000L, CompactGameCodec.expiresAt(updated));
+        assertArrayEquals(game.getMoves(), CompactGameCodec.decode(game.getId(), updated).getMoves());
+    }
+
+    // Plays the given row and column pairs alternately for both players
+    private static void play(Game game, int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            game.playMove(cells[i], cells[i + 1]);
+            game.switchPlayer();
+        }
+    }
+}
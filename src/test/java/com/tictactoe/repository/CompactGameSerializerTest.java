@@ -0,0 +1,45 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactGameSerializerTest {
+    private final CompactGameSerializer serializer = new CompactGameSerializer();
+
+    @Test
+    void roundTripsAGameWithItsId() {
+        Game game = new Game("X", "hard", "bob");
+        game.playMove(9, 9);
+        game.switchPlayer();
+        game.playMove(9, 10);
+        game.switchPlayer();
+
+        byte[] value = serializer.serialize(game);
+        Game decoded = serializer.deserialize(value);
+
+        assertEquals(game.getId(), decoded.getId());
+        assertEquals("bob", decoded.getPlayerName());
+        assertArrayEquals(game.getMoves(), decoded.getMoves());
+        assertEquals("O", decoded.getBoard().getCell(9, 10).getValue());
+        assertEquals(game.getCurrentPlayer().getSymbol(), decoded.getCurrentPlayer().getSymbol());
+    }
+
+    @Test
+    void storesTheMoveLogRatherThanTheBoard() {
+        Game game = new Game("X", "hard");
+        Game branch = game.branch(0);
+        // A header, the ID and the difficulty, far less than one byte per cell of the board
+        assertTrue(serializer.serialize(branch).length < 100);
+    }
+
+    @Test
+    void nullStaysNull() {
+        assertNull(serializer.serialize(null));
+        assertNull(serializer.deserialize(null));
+    }
+}
@@ -0,0 +1,92 @@
+package com.tictactoe.repository;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryGameRepositoryTest {
+    private InMemoryGameRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryGameRepository(event -> { }, new InMemoryStatisticsRepository(), 16);
+        ReflectionTestUtils.setField(repository, "finishedGameTtlMinutes", 5L);
+    }
+
+    @Test
+    void onlyOneOfAMoveAndTheExpirySweepClaimsTheGame() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Game game = scheduledGame();
+                CyclicBarrier start = new CyclicBarrier(2);
+                CompletableFuture<Boolean> move = CompletableFuture.supplyAsync(() -> claim(game, start), executor);
+                CompletableFuture<Boolean> expiry = CompletableFuture.supplyAsync(() -> claim(game, start), executor);
+
+                assertNotEquals(move.get(), expiry.get());
+                assertFalse(repository.claimExpiry(game.getId()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aStaleInProgressSaveDoesNotOverwriteAFinishedGame() {
+        Game game = scheduledGame();
+        Game stale = repository.findById(game.getId()).orElseThrow();
+
+        assertTrue(repository.claimExpiry(game.getId()));
+        game.setGameState(GameState.DRAW);
+        assertTrue(repository.save(game));
+
+        assertFalse(repository.save(stale));
+        assertEquals(GameState.DRAW, repository.findById(game.getId()).orElseThrow().getGameState());
+    }
+
+    @Test
+    void saveAllReportsOnlyTheGamesThatHadAlreadyEnded() {
+        Game finished = scheduledGame();
+        Game running = scheduledGame();
+        Game stale = repository.findById(finished.getId()).orElseThrow();
+        repository.claimExpiry(finished.getId());
+        finished.setGameState(GameState.O_WON);
+        repository.save(finished);
+
+        Set<String> unchanged = repository.saveAll(List.of(stale, running));
+
+        assertEquals(Set.of(finished.getId()), unchanged);
+        assertEquals(GameState.O_WON, repository.findById(finished.getId()).orElseThrow().getGameState());
+    }
+
+    private Game scheduledGame() {
+        Game game = new Game("X", "hard");
+        assertTrue(repository.save(game));
+        repository.scheduleExpiry(game.getId(), Instant.now().plusSeconds(60));
+        return game;
+    }
+
+    private boolean claim(Game game, CyclicBarrier start) {
+        try {
+            start.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return repository.claimExpiry(game.getId());
+    }
+}
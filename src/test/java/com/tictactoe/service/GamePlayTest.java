@@ -0,0 +1,94 @@
+package com.tictactoe.service;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.GameState;
+import com.tictactoe.model.Move;
+import com.tictactoe.model.Symmetry;
+import com.tictactoe.service.ai.EvaluationWeights;
+import com.tictactoe.service.ai.HardAIPlayer;
+import com.tictactoe.service.ai.MoveAnalysis;
+import com.tictactoe.service.ai.SelectiveSearch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GamePlayTest {
+    private GamePlay gamePlay;
+
+    @BeforeEach
+    void setUp() {
+        HardAIPlayer analysisPlayer = new HardAIPlayer(EvaluationWeights.defaults(), SelectiveSearch.none(),
+                null, null);
+        ReflectionTestUtils.setField(analysisPlayer, "maxDepth", 2);
+        ReflectionTestUtils.setField(analysisPlayer, "timeLimit", 0L);
+        gamePlay = new GamePlay(null, analysisPlayer, new AnalysisCache(16), null, null);
+        ReflectionTestUtils.setField(gamePlay, "maxAnalysisLines", 5);
+    }
+
+    @Test
+    void returnsTheRequestedNumberOfLinesCappedAtTheMaximum() {
+        Game game = position(Symmetry.IDENTITY);
+
+        assertEquals(3, gamePlay.analyze(game, 3).size());
+        assertEquals(5, gamePlay.analyze(game, 50).size());
+        assertEquals(1, gamePlay.analyze(game, 0).size());
+    }
+
+    @Test
+    void fewerLinesAreAPrefixOfMoreLines() {
+        Game game = position(Symmetry.IDENTITY);
+
+        List<MoveAnalysis> five = gamePlay.analyze(game, 5);
+        List<MoveAnalysis> two = gamePlay.analyze(game, 2);
+
+        for (int i = 0; i < two.size(); i++) {
+            assertEquals(cell(five.get(i).getMove()), cell(two.get(i).getMove()));
+            assertEquals(five.get(i).getScore(), two.get(i).getScore());
+        }
+    }
+
+    @Test
+    void aCachedAnalysisIsMappedToTheSymmetricBoard() {
+        List<MoveAnalysis> original = gamePlay.analyze(position(Symmetry.IDENTITY), 5);
+        // Served from the entry of the original position, in the rotated board's orientation
+        List<MoveAnalysis> rotated = gamePlay.analyze(position(Symmetry.ROTATE_90), 5);
+
+        for (int i = 0; i < original.size(); i++) {
+            Move expected = Symmetry.ROTATE_90.apply(original.get(i).getMove(), 20);
+            assertEquals(cell(expected), cell(rotated.get(i).getMove()));
+            assertEquals(original.get(i).getScore(), rotated.get(i).getScore());
+        }
+        for (MoveAnalysis line : rotated) {
+            Move move = line.getMove();
+            assertTrue(position(Symmetry.ROTATE_90).getBoard().getCell(move.getRow(), move.getCol()).isEmpty());
+        }
+    }
+
+    @Test
+    void aFinishedGameHasNoAnalysis() {
+        Game game = position(Symmetry.IDENTITY);
+        game.setGameState(GameState.O_WON);
+
+        assertTrue(gamePlay.analyze(game, 3).isEmpty());
+    }
+
+    private static Game position(Symmetry symmetry) {
+        Game game = new Game("X", "hard");
+        int[] cells = {9, 9, 9, 10, 10, 10, 8, 8, 10, 8};
+        for (int i = 0; i < cells.length; i += 2) {
+            Move move = symmetry.apply(new Move(cells[i], cells[i + 1]), 20);
+            game.playMove(move.getRow(), move.getCol());
+            game.switchPlayer();
+        }
+        return game;
+    }
+
+    private static int cell(Move move) {
+        return move.getRow() * 20 + move.getCol();
+    }
+}
@@ -0,0 +1,93 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HardAIPlayerTest {
+    private static final SearchLimits LIMITS = new SearchLimits(3, 0, 0, SelectiveSearch.none());
+
+    // Explicit limits never reach the best-move cache or the solver
+    private final HardAIPlayer player = new HardAIPlayer(EvaluationWeights.defaults(), SelectiveSearch.none(),
+            null, null);
+
+    @Test
+    void analysisLinesAreOrderedBestFirst() {
+        Game game = midGame();
+
+        List<MoveAnalysis> lines = player.analyze(game, 5, LIMITS, new SearchStatistics());
+
+        assertEquals(5, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            MoveAnalysis line = lines.get(i);
+            assertEquals(3, line.getDepth());
+            assertTrue(same(line.getMove(), line.getPrincipalVariation().get(0)));
+            if (i > 0) {
+                assertTrue(lines.get(i - 1).getScore() >= line.getScore());
+            }
+        }
+    }
+
+    @Test
+    void multiPvScoresAreExact() {
+        Game game = midGame();
+
+        // With a line for every cell of the board every move is searched with an open window
+        List<MoveAnalysis> exact = player.analyze(game, 400, LIMITS, new SearchStatistics());
+        Map<Integer, Integer> exactScores = new HashMap<>();
+        for (MoveAnalysis line : exact) {
+            exactScores.put(cell(line.getMove()), line.getScore());
+        }
+
+        // Moves that fail low against the third line only get a bound, none of them may be reported
+        List<MoveAnalysis> lines = player.analyze(game, 3, LIMITS, new SearchStatistics());
+        assertEquals(3, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(exact.get(i).getScore(), lines.get(i).getScore());
+            assertEquals(exactScores.get(cell(lines.get(i).getMove())), lines.get(i).getScore());
+        }
+    }
+
+    @Test
+    void analysisPutsTheWinningMoveFirst() {
+        Game game = new Game("X", "hard");
+        // X has four in a row open at (9,10), O has scattered stones
+        play(game, 9, 6, 3, 3, 9, 7, 3, 15, 9, 8, 15, 3, 9, 9, 15, 15);
+
+        List<MoveAnalysis> lines = player.analyze(game, 3, LIMITS, new SearchStatistics());
+
+        MoveAnalysis best = lines.get(0);
+        assertTrue(cell(best.getMove()) == cell(new Move(9, 10)) || cell(best.getMove()) == cell(new Move(9, 5)));
+        // Completing the five ends the line at once
+        assertEquals(1, best.getPrincipalVariation().size());
+    }
+
+    private static Game midGame() {
+        Game game = new Game("X", "hard");
+        play(game, 9, 9, 9, 10, 10, 10, 8, 8, 10, 8, 11, 9);
+        return game;
+    }
+
+    // Plays the given row and column pairs alternately for both players
+    private static void play(Game game, int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            game.playMove(cells[i], cells[i + 1]);
+            game.switchPlayer();
+        }
+    }
+
+    private static int cell(Move move) {
+        return move.getRow() * 20 + move.getCol();
+    }
+
+    private static boolean same(Move a, Move b) {
+        return cell(a) == cell(b);
+    }
+}
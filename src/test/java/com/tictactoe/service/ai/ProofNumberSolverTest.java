@@ -0,0 +1,53 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Board;
+import com.tictactoe.model.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ProofNumberSolverTest {
+
+    @Test
+    void provesAFourThreeWin() {
+        // X at (9,9) makes a four O must block at (9,10), and an open three down column 9
+        // that becomes an open four on the next move
+        Board board = new Board(20);
+        place(board, "X", 9, 6, 9, 7, 9, 8, 10, 9, 11, 9);
+        place(board, "O", 9, 5, 0, 0, 0, 19, 19, 0, 19, 19);
+
+        Solution solution = new ProofNumberSolver(1 << 16, 16).solve(board, "X", "O", 200_000);
+
+        assertEquals(Solution.Outcome.WIN, solution.getOutcome());
+        Move first = solution.getMove();
+        assertNotNull(first);
+        assertEquals(9, first.getRow());
+        assertEquals(9, first.getCol());
+    }
+
+    @Test
+    void reusesAProvedWinForTheMirroredPosition() {
+        ProofNumberSolver solver = new ProofNumberSolver(1 << 16, 16);
+        Board board = new Board(20);
+        place(board, "X", 9, 6, 9, 7, 9, 8, 10, 9, 11, 9);
+        place(board, "O", 9, 5, 0, 0, 0, 19, 19, 0, 19, 19);
+        solver.solve(board, "X", "O", 200_000);
+
+        // The same position flipped left to right, answered from the stored proof without searching
+        Board mirrored = new Board(20);
+        place(mirrored, "X", 9, 13, 9, 12, 9, 11, 10, 10, 11, 10);
+        place(mirrored, "O", 9, 14, 0, 19, 0, 0, 19, 19, 19, 0);
+        Move win = solver.findForcedWin(mirrored, "X", "O", 1);
+
+        assertNotNull(win);
+        assertEquals(9, win.getRow());
+        assertEquals(10, win.getCol());
+    }
+
+    private static void place(Board board, String symbol, int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            board.makeMove(cells[i], cells[i + 1], symbol);
+        }
+    }
+}
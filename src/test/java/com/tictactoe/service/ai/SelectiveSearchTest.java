@@ -0,0 +1,86 @@
+package com.tictactoe.service.ai;
+
+import com.tictactoe.model.Game;
+import com.tictactoe.model.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelectiveSearchTest {
+    // The shipped defaults: reductions, futility pruning and one ply of four extensions
+    private static final SelectiveSearch SELECTIVE = new SelectiveSearch(true, 3, 2, true, 4000, 1);
+    private static final SearchLimits LIMITS = new SearchLimits(4, 0, 0, SELECTIVE);
+
+    private final HardAIPlayer player = new HardAIPlayer(EvaluationWeights.defaults(), SELECTIVE, null, null);
+
+    @Test
+    void completesAFive() {
+        // X to move with four in a row, closed on the left by O
+        Game game = game("X",
+                new int[]{9, 6, 9, 7, 9, 8, 9, 9, 4, 4},
+                new int[]{9, 5, 3, 3, 15, 15, 3, 15, 15, 3});
+
+        assertMove(9, 10, game);
+    }
+
+    @Test
+    void blocksAFour() {
+        // O to move, X threatens five at (9,10)
+        Game game = game("O",
+                new int[]{9, 6, 9, 7, 9, 8, 9, 9, 4, 4},
+                new int[]{9, 5, 3, 3, 15, 15, 3, 15});
+
+        assertMove(9, 10, game);
+    }
+
+    @Test
+    void blocksAnOpenThreeBeforeItBecomesAnOpenFour() {
+        // O to move, X's open three on row 9 becomes an unstoppable open four unless an end is taken
+        Game game = game("O",
+                new int[]{9, 7, 9, 8, 9, 9, 3, 3},
+                new int[]{15, 15, 3, 15, 15, 3});
+
+        Move move = player.makeMove(game, LIMITS, new SearchStatistics());
+        assertEquals(9, move.getRow());
+        assertTrue(move.getCol() == 5 || move.getCol() == 6 || move.getCol() == 10 || move.getCol() == 11,
+                "blocked at column " + move.getCol());
+    }
+
+    @Test
+    void findsTheFourThreeWin() {
+        // X at (9,9) makes a four closed by O and an open three down column 9 at once
+        Game game = game("X",
+                new int[]{9, 6, 9, 7, 9, 8, 10, 9, 11, 9},
+                new int[]{9, 5, 0, 0, 0, 19, 19, 0, 19, 19});
+
+        assertMove(9, 9, game);
+    }
+
+    @Test
+    void reductionsNeedTwoPliesLeft() {
+        assertThrows(IllegalArgumentException.class, () -> new SelectiveSearch(true, 3, 1, false, 0, 0));
+    }
+
+    private void assertMove(int row, int col, Game game) {
+        Move move = player.makeMove(game, LIMITS, new SearchStatistics());
+        assertEquals(row * 20 + col, move.getRow() * 20 + move.getCol(),
+                "played (" + move.getRow() + ", " + move.getCol() + ")");
+    }
+
+    // Places the stones directly and gives the move to the given side
+    private static Game game(String toMove, int[] xCells, int[] oCells) {
+        Game game = new Game("X", "hard");
+        for (int i = 0; i < xCells.length; i += 2) {
+            game.getBoard().makeMove(xCells[i], xCells[i + 1], "X");
+        }
+        for (int i = 0; i < oCells.length; i += 2) {
+            game.getBoard().makeMove(oCells[i], oCells[i + 1], "O");
+        }
+        if (!game.getCurrentPlayer().getSymbol().equals(toMove)) {
+            game.switchPlayer();
+        }
+        return game;
+    }
+}